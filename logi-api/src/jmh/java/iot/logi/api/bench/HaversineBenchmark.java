@@ -0,0 +1,39 @@
+package iot.logi.api.bench;
+
+import iot.logi.api.geo.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Distância das transações (TransactionService); coordenadas aleatórias evitam constant folding
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HaversineBenchmark {
+
+    private static final int POINTS = 1024;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = random.nextDouble(-33.7, 5.3);
+            longitudes[i] = random.nextDouble(-73.9, -34.8);
+        }
+    }
+
+    @Benchmark
+    public double haversineKm() {
+        int from = next++ & (POINTS - 1);
+        int to = (from + 1) & (POINTS - 1);
+        return GeoUtils.haversineKm(latitudes[from], longitudes[from], latitudes[to], longitudes[to]);
+    }
+}
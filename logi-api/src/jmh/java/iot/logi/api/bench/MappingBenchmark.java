@@ -0,0 +1,58 @@
+package iot.logi.api.bench;
+
+import iot.logi.api.dtos.DeviceView;
+import iot.logi.api.dtos.LocationDto;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.models.Device;
+import iot.logi.api.models.Location;
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.services.LocationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Conversões entidade -> view das respostas e DTO -> entidade dos cadastros
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private Transaction transaction;
+    private Device device;
+    private LocationDto locationDto;
+    private LocationService locationService;
+
+    @Setup
+    public void setUp() {
+        transaction = SerializationBenchmark.Fixtures.transaction(1);
+        device = SerializationBenchmark.Fixtures.device(1);
+
+        locationDto = new LocationDto();
+        locationDto.setName("CD Cascavel");
+        locationDto.setLatitude(-24.9555);
+        locationDto.setLongitude(-53.4552);
+        locationDto.setType(LocationType.DISTRIBUTION);
+
+        // toLocation não usa os colaboradores
+        locationService = new LocationService(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public TransactionView transactionToView() {
+        return TransactionView.from(transaction);
+    }
+
+    @Benchmark
+    public DeviceView deviceToView() {
+        return DeviceView.from(device);
+    }
+
+    @Benchmark
+    public Location locationDtoToEntity() {
+        return locationService.toLocation(locationDto);
+    }
+}
@@ -0,0 +1,112 @@
+package iot.logi.api.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.models.Device;
+import iot.logi.api.models.Driver;
+import iot.logi.api.models.Location;
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.Vehicle;
+import iot.logi.api.models.enums.DeviceStatus;
+import iot.logi.api.models.enums.DeviceType;
+import iot.logi.api.models.enums.LocationType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Corpo de GET /transactions: a página de entidades (formato original) e a página de projeções servida hoje
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Transaction> transactions;
+    private Page<TransactionView> views;
+
+    @Setup
+    public void setUp() {
+        // Mesma configuração do ObjectMapper do Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<Transaction> content = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            content.add(Fixtures.transaction(i));
+        }
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        transactions = new PageImpl<>(content, pageable, 10_000);
+        views = transactions.map(TransactionView::from);
+    }
+
+    @Benchmark
+    public byte[] transactionPage() throws Exception {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] transactionViewPage() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    static final class Fixtures {
+
+        private Fixtures() {
+        }
+
+        static Location location(long id) {
+            return Location.builder()
+                    .id(id)
+                    .name("Local " + id)
+                    .latitude(-25 + id * 0.01)
+                    .longitude(-53 + id * 0.01)
+                    .type(LocationType.DISTRIBUTION)
+                    .build();
+        }
+
+        static Device device(long id) {
+            return Device.builder()
+                    .id(id)
+                    .name("Rastreador " + id)
+                    .location(location(id))
+                    .type(DeviceType.TRANSPORT)
+                    .status(DeviceStatus.ACTIVE)
+                    .lastTracking(LocalDateTime.of(2024, 10, 1, 8, 0))
+                    .build();
+        }
+
+        static Transaction transaction(long id) {
+            return Transaction.builder()
+                    .id(id)
+                    .originLocation(location(id))
+                    .destinyLocation(location(id + 1))
+                    .vehicle(Vehicle.builder()
+                            .id(id)
+                            .name("Caminhão " + id)
+                            .plate("ABC1D23")
+                            .device(device(id))
+                            .build())
+                    .driver(Driver.builder().id(id).name("Motorista " + id).build())
+                    .dispatchTime(LocalDateTime.of(2024, 10, 1, 8, 0))
+                    .arrivalTime(LocalDateTime.of(2024, 10, 1, 17, 30))
+                    .cargoDescription("Soja a granel")
+                    .distanceKm(480.5)
+                    .build();
+        }
+    }
+}
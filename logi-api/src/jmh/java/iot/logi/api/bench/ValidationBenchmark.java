@@ -0,0 +1,92 @@
+package iot.logi.api.bench;
+
+import iot.logi.api.dtos.DeviceDto;
+import iot.logi.api.dtos.LocationDto;
+import iot.logi.api.dtos.TransactionDto;
+import iot.logi.api.models.enums.DeviceStatus;
+import iot.logi.api.models.enums.DeviceType;
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.validators.ObjectsValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Mesmo caminho dos lotes e da importação: ObjectsValidator sobre os DTOs, incluindo @Latitude/@Longitude
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ObjectsValidator<Object> objectsValidator;
+    private Validator validator;
+    private TransactionDto transaction;
+    private LocationDto location;
+    private LocationDto invalidLocation;
+    private DeviceDto device;
+
+    @Setup
+    public void setUp() {
+        objectsValidator = new ObjectsValidator<>();
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        transaction = new TransactionDto();
+        transaction.setOriginLocationId(1L);
+        transaction.setDestinyLocationId(2L);
+        transaction.setVehicleId(3L);
+        transaction.setDriverId(4L);
+        transaction.setDispatchTime(LocalDateTime.of(2024, 10, 1, 8, 0));
+        transaction.setCargoDescription("Soja a granel");
+
+        location = new LocationDto();
+        location.setName("CD Cascavel");
+        location.setLatitude(-24.9555);
+        location.setLongitude(-53.4552);
+        location.setType(LocationType.DISTRIBUTION);
+
+        invalidLocation = new LocationDto();
+        invalidLocation.setName("CD");
+        invalidLocation.setLatitude(-124.9555);
+        invalidLocation.setLongitude(253.4552);
+
+        device = new DeviceDto();
+        device.setName("Rastreador 01");
+        device.setLocationId(1L);
+        device.setType(DeviceType.TRANSPORT);
+        device.setStatus(DeviceStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public Set<String> transactionDto() {
+        return objectsValidator.validate(transaction);
+    }
+
+    @Benchmark
+    public Set<String> locationDto() {
+        return objectsValidator.validate(location);
+    }
+
+    // Caminho de erro: monta violações e interpola as mensagens
+    @Benchmark
+    public Set<String> invalidLocationDto() {
+        return objectsValidator.validate(invalidLocation);
+    }
+
+    @Benchmark
+    public Set<String> deviceDto() {
+        return objectsValidator.validate(device);
+    }
+
+    // Referência sem o wrapper, para isolar o custo do ObjectsValidator
+    @Benchmark
+    public Set<ConstraintViolation<LocationDto>> locationDtoRawValidator() {
+        return validator.validate(location);
+    }
+}
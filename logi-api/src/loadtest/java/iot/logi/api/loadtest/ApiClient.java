@@ -0,0 +1,92 @@
+package iot.logi.api.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Monta as requisições da API e faz as chamadas; as respostas são lidas inteiras para medir o corpo completo
+final class ApiClient {
+
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+
+    ApiClient(URI baseUri, Duration requestTimeout) {
+        this.baseUrl = baseUri.toString().replaceFirst("/+$", "");
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    HttpRequest post(String path, Object body) {
+        return builder(path).header("Content-Type", "application/json").POST(json(body)).build();
+    }
+
+    HttpRequest put(String path, Object body) {
+        return builder(path).header("Content-Type", "application/json").PUT(json(body)).build();
+    }
+
+    HttpRequest delete(String path) {
+        return builder(path).DELETE().build();
+    }
+
+    CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // Usado só na carga inicial, fora da medição
+    JsonNode call(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IOException(request.method() + " " + request.uri() + " retornou HTTP " + response.statusCode()
+                    + ": " + new String(response.body()));
+        }
+        return readTree(response.body());
+    }
+
+    long idOf(HttpResponse<byte[]> response) {
+        try {
+            return objectMapper.readTree(response.body()).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Resposta sem id: " + request(response), e);
+        }
+    }
+
+    private JsonNode readTree(byte[] body) throws IOException {
+        return objectMapper.readTree(body);
+    }
+
+    private static String request(HttpResponse<?> response) {
+        return response.request().method() + " " + response.request().uri();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar corpo da requisição", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package iot.logi.api.loadtest;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// CRUD de /devices sobre os dispositivos criados no teste: 25% criação, 45% leitura, 20% atualização, 10% remoção
+final class DeviceCrudScenario implements Scenario {
+
+    private final ApiClient api;
+    private final List<Long> locationIds;
+    private final IdPool devices = new IdPool();
+    private final AtomicLong sequence = new AtomicLong();
+
+    DeviceCrudScenario(ApiClient api, List<Long> locationIds) {
+        this.api = api;
+        this.locationIds = locationIds;
+    }
+
+    @Override
+    public Call next(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        Long id = roll < 25 ? null : roll < 90 ? devices.pick(random) : devices.take(random);
+        if (id == null) {
+            return create(random);
+        }
+        if (roll < 70) {
+            return Call.of("GET /devices/{id}", api.get("/devices/" + id));
+        }
+        if (roll < 90) {
+            return Call.of("PUT /devices/{id}", api.put("/devices/" + id, body(random, "MAINTENANCE")));
+        }
+        return Call.of("DELETE /devices/{id}", api.delete("/devices/" + id));
+    }
+
+    private Call create(SplittableRandom random) {
+        return new Call("POST /devices", api.post("/devices", body(random, "ACTIVE")),
+                response -> devices.add(api.idOf(response)), () -> {
+        });
+    }
+
+    private Object body(SplittableRandom random, String status) {
+        return Seeder.body(
+                "name", "Sensor " + sequence.incrementAndGet(),
+                "locationId", locationIds.get(random.nextInt(locationIds.size())),
+                "type", "METRIC",
+                "status", status);
+    }
+}
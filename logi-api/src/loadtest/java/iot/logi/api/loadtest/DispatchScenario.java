@@ -0,0 +1,73 @@
+package iot.logi.api.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Despacho e chegada de viagens: cada par veículo/motorista fica reservado enquanto a viagem está em andamento
+final class DispatchScenario implements Scenario {
+
+    private record Crew(long vehicleId, long driverId) {
+    }
+
+    private record Trip(long id, Crew crew, Map<String, Object> body) {
+    }
+
+    private final ApiClient api;
+    private final List<Long> locationIds;
+    private final Queue<Crew> idle = new ConcurrentLinkedQueue<>();
+    private final Queue<Trip> ongoing = new ConcurrentLinkedQueue<>();
+
+    DispatchScenario(ApiClient api, Seeder.SeedData seed) {
+        this.api = api;
+        this.locationIds = seed.locationIds();
+        for (int i = 0; i < seed.vehicleIds().size(); i++) {
+            idle.add(new Crew(seed.vehicleIds().get(i), seed.driverIds().get(i)));
+        }
+    }
+
+    @Override
+    public Call next(SplittableRandom random) {
+        if (random.nextBoolean() || idle.isEmpty()) {
+            Trip trip = ongoing.poll();
+            if (trip != null) {
+                return arrive(trip);
+            }
+        }
+
+        Crew crew = idle.poll();
+        return crew == null ? null : dispatch(crew, random);
+    }
+
+    private Call dispatch(Crew crew, SplittableRandom random) {
+        int origin = random.nextInt(locationIds.size());
+        int destiny = (origin + 1 + random.nextInt(locationIds.size() - 1)) % locationIds.size();
+        Map<String, Object> body = Seeder.body(
+                "originLocationId", locationIds.get(origin),
+                "destinyLocationId", locationIds.get(destiny),
+                "vehicleId", crew.vehicleId(),
+                "driverId", crew.driverId(),
+                "dispatchTime", now(),
+                "cargoDescription", "Carga de teste");
+        return new Call("POST /transactions", api.post("/transactions", body),
+                response -> ongoing.add(new Trip(api.idOf(response), crew, body)),
+                () -> idle.add(crew));
+    }
+
+    private Call arrive(Trip trip) {
+        Map<String, Object> body = Seeder.body();
+        body.putAll(trip.body());
+        body.put("arrivalTime", now());
+        return new Call("PUT /transactions/{id}", api.put("/transactions/" + trip.id(), body),
+                response -> idle.add(trip.crew()),
+                () -> ongoing.add(trip));
+    }
+
+    private static String now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+}
@@ -0,0 +1,37 @@
+package iot.logi.api.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// IDs criados durante o teste, com sorteio e remoção em O(1)
+final class IdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    synchronized void add(long id) {
+        ids.add(id);
+    }
+
+    synchronized void addAll(List<Long> newIds) {
+        ids.addAll(newIds);
+    }
+
+    synchronized Long pick(SplittableRandom random) {
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    synchronized Long take(SplittableRandom random) {
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        int index = random.nextInt(ids.size());
+        Long last = ids.removeLast();
+        return index == ids.size() ? last : ids.set(index, last);
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+}
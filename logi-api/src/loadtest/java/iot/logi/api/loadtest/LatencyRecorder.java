@@ -0,0 +1,128 @@
+package iot.logi.api.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por endpoint em dois histogramas: o corrigido mede do instante em que a requisição deveria ter saído
+ * segundo a taxa configurada (omissão coordenada corrigida) e o de serviço mede do envio efetivo até a resposta.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> skipped = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long correctedNanos, long serviceNanos, String failure) {
+        EndpointStats stats = stats(endpoint);
+        stats.corrected.recordValue(Math.min(correctedNanos, HIGHEST_TRACKABLE_NANOS));
+        stats.service.recordValue(Math.min(serviceNanos, HIGHEST_TRACKABLE_NANOS));
+        if (failure != null) {
+            stats.failures.computeIfAbsent(failure, key -> new LongAdder()).increment();
+        }
+    }
+
+    // Chegada que não virou requisição por excesso de requisições em andamento: invalida a correção
+    void dropped(String endpoint) {
+        stats(endpoint).dropped.increment();
+    }
+
+    void skipped(String scenario) {
+        skipped.computeIfAbsent(scenario, key -> new LongAdder()).increment();
+    }
+
+    void report(double targetRate, double seconds, Path output) throws IOException {
+        Files.createDirectories(output);
+        Map<String, EndpointStats> sorted = new TreeMap<>(endpoints);
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        Histogram totalService = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+
+        System.out.printf("%nTarget rate %.1f req/s, %.0fs measured; latencies in ms%n", targetRate, seconds);
+        System.out.printf("%-26s %9s %7s %7s %9s %9s %9s %9s %9s %9s %11s%n", "endpoint", "count", "errors",
+                "dropped", "req/s", "p50", "p90", "p99", "p99.9", "max", "p99 service");
+        try (PrintStream csv = new PrintStream(Files.newOutputStream(output.resolve("summary.csv")))) {
+            csv.println("endpoint,count,errors,dropped,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,p99_service_ms");
+            for (Map.Entry<String, EndpointStats> entry : sorted.entrySet()) {
+                EndpointStats stats = entry.getValue();
+                long errors = stats.errors();
+                long dropped = stats.dropped.sum();
+                print(csv, entry.getKey(), stats.corrected, stats.service, errors, dropped, seconds);
+                writeDistribution(output, entry.getKey(), stats.corrected);
+                total.add(stats.corrected);
+                totalService.add(stats.service);
+                totalErrors += errors;
+                totalDropped += dropped;
+            }
+            print(csv, "TOTAL", total, totalService, totalErrors, totalDropped, seconds);
+            writeDistribution(output, "TOTAL", total);
+        }
+
+        sorted.forEach((endpoint, stats) -> stats.failures.forEach((failure, count) ->
+                System.out.printf("  %s: %s x%d%n", endpoint, failure, count.sum())));
+        skipped.forEach((scenario, count) ->
+                System.out.printf("  %s: %d arrivals skipped (nothing to send)%n", scenario, count.sum()));
+        if (totalDropped > 0) {
+            System.out.printf("WARNING: %d arrivals dropped at --max-in-flight; the target rate was not sustained%n",
+                    totalDropped);
+        }
+        System.out.printf("Percentile distributions (.hgrm) and summary.csv written to %s%n", output.toAbsolutePath());
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    private static void print(PrintStream csv, String endpoint, Histogram corrected, Histogram service, long errors,
+                              long dropped, double seconds) {
+        long count = corrected.getTotalCount();
+        double throughput = count / seconds;
+        double p50 = millis(corrected, 50);
+        double p90 = millis(corrected, 90);
+        double p99 = millis(corrected, 99);
+        double p999 = millis(corrected, 99.9);
+        double max = corrected.getMaxValue() / NANOS_PER_MILLI;
+        double serviceP99 = millis(service, 99);
+        System.out.printf("%-26s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n", endpoint, count, errors,
+                dropped, throughput, p50, p90, p99, p999, max, serviceP99);
+        csv.printf(Locale.ROOT, "\"%s\",%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n", endpoint, count,
+                errors, dropped, throughput, p50, p90, p99, p999, max, serviceP99);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static void writeDistribution(Path output, String endpoint, Histogram histogram) throws IOException {
+        String file = endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+        try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(file)))) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static final class EndpointStats {
+
+        private final Histogram corrected = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Histogram service = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+
+        long errors() {
+            return failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
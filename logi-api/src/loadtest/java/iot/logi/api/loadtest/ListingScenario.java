@@ -0,0 +1,25 @@
+package iot.logi.api.loadtest;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Listagens paginadas por offset, nas primeiras páginas como um painel faria
+final class ListingScenario implements Scenario {
+
+    private static final List<String> RESOURCES = List.of("devices", "locations", "vehicles", "transactions");
+    private static final int PAGES = 10;
+    private static final int PAGE_SIZE = 20;
+
+    private final ApiClient api;
+
+    ListingScenario(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public Call next(SplittableRandom random) {
+        String resource = RESOURCES.get(random.nextInt(RESOURCES.size()));
+        return Call.of("GET /" + resource + "?page",
+                api.get("/" + resource + "?page=" + random.nextInt(PAGES) + "&size=" + PAGE_SIZE));
+    }
+}
@@ -0,0 +1,69 @@
+package iot.logi.api.loadtest;
+
+import iot.logi.api.LogiApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness de carga ponta a ponta: sobe a logi-api no mesmo processo com o perfil {@code loadtest} (H2 em memória
+ * e AMQP sem broker), popula a base pela API e dispara os cenários em modelo aberto na taxa configurada.
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.args="--rate=300 --duration=120 --mix=listing=50,dispatch=50"
+ * </pre>
+ * Com {@code --url} o harness usa uma instância já em execução (ex.: com Postgres real) em vez de subir a
+ * aplicação; {@code --profiles} acrescenta perfis à instância embarcada, como {@code virtual-threads}. Gerador e
+ * API dividem a CPU no modo embarcado, então compare execuções feitas no mesmo modo.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        URI url = options.url();
+        if (url == null) {
+            context = new SpringApplicationBuilder(LogiApiApplication.class)
+                    .profiles(options.profiles().toArray(String[]::new))
+                    .properties("server.port=0")
+                    .run();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+            url = URI.create("http://localhost:" + port + contextPath);
+        }
+
+        try {
+            run(options, url);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(LoadTestOptions options, URI url) throws Exception {
+        ApiClient api = new ApiClient(url, options.requestTimeout());
+        LocationGrid grid = new LocationGrid();
+        System.out.printf("Seeding %s with %d locations and %d vehicles/drivers%n", url, options.seedLocations(),
+                options.seedVehicles());
+        Seeder.SeedData seed = new Seeder(api, grid).seed(options.seedLocations(), options.seedVehicles());
+
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("device-crud", new DeviceCrudScenario(api, seed.locationIds()));
+        scenarios.put("location-crud", new LocationCrudScenario(api, grid));
+        scenarios.put("dispatch", new DispatchScenario(api, seed));
+        scenarios.put("listing", new ListingScenario(api));
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        OpenModelRunner runner = new OpenModelRunner(api, recorder, options.mix(), scenarios);
+        System.out.printf("Running %s at %.1f req/s: %ds warmup, %ds measured%n", options.mix(), options.rate(),
+                options.warmup().toSeconds(), options.duration().toSeconds());
+        runner.run(options.rate(), options.warmup().toNanos(), options.duration().toNanos(), options.maxInFlight(),
+                options.requestTimeout().toNanos());
+
+        recorder.report(options.rate(), options.duration().toNanos() / 1e9, options.output());
+    }
+}
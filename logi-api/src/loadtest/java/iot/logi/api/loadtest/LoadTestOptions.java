@@ -0,0 +1,80 @@
+package iot.logi.api.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+record LoadTestOptions(URI url, List<String> profiles, double rate, Duration warmup, Duration duration,
+                       Map<String, Integer> mix, int seedLocations, int seedVehicles, int maxInFlight,
+                       Duration requestTimeout, Path output) {
+
+    static LoadTestOptions parse(String[] args) {
+        URI url = null;
+        List<String> profiles = new ArrayList<>(List.of("loadtest"));
+        double rate = 200;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        Map<String, Integer> mix = parseMix("device-crud=25,location-crud=15,dispatch=20,listing=40");
+        int seedLocations = 500;
+        int seedVehicles = 200;
+        int maxInFlight = 5000;
+        Duration requestTimeout = Duration.ofSeconds(30);
+        Path output = Path.of("target", "loadtest");
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+
+            String value = arg.substring(split + 1);
+            switch (arg.substring(2, split)) {
+                case "url" -> url = URI.create(value);
+                case "profiles" -> profiles.addAll(List.of(value.split(",")));
+                case "rate" -> rate = Double.parseDouble(value);
+                case "warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "mix" -> mix = parseMix(value);
+                case "seed-locations" -> seedLocations = Integer.parseInt(value);
+                case "seed-vehicles" -> seedVehicles = Integer.parseInt(value);
+                case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "timeout" -> requestTimeout = Duration.ofSeconds(Long.parseLong(value));
+                case "output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Argumento desconhecido: " + arg);
+            }
+        }
+
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate deve ser maior que zero");
+        }
+        if (seedLocations < 2 || seedVehicles < 1) {
+            throw new IllegalArgumentException("A carga inicial precisa de ao menos 2 localizações e 1 veículo");
+        }
+        return new LoadTestOptions(url, profiles, rate, warmup, duration, mix, seedLocations, seedVehicles,
+                maxInFlight, requestTimeout, output);
+    }
+
+    // Pesos relativos por cenário, ex.: device-crud=25,listing=75
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cenário inválido em --mix: " + entry);
+            }
+
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(parts[0].trim(), weight);
+            }
+        }
+
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix precisa de ao menos um cenário com peso positivo");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,66 @@
+package iot.logi.api.loadtest;
+
+import iot.logi.api.models.enums.LocationType;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// CRUD de /locations sobre as localizações criadas no teste, que não são referenciadas por dispositivos ou viagens
+final class LocationCrudScenario implements Scenario {
+
+    private record Created(long id, double latitude, double longitude) {
+    }
+
+    private final ApiClient api;
+    private final LocationGrid grid;
+    private final IdPool locations = new IdPool();
+    private final Map<Long, Created> created = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    LocationCrudScenario(ApiClient api, LocationGrid grid) {
+        this.api = api;
+        this.grid = grid;
+    }
+
+    @Override
+    public Call next(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        Long id = roll < 25 ? null : roll < 90 ? locations.pick(random) : locations.take(random);
+        Created location = id == null ? null : created.get(id);
+        if (location == null) {
+            return create(random);
+        }
+        if (roll < 70) {
+            return Call.of("GET /locations/{id}", api.get("/locations/" + id));
+        }
+        if (roll < 90) {
+            // Mesmas coordenadas: só renomeia, sem disparar a checagem de proximidade nem o recálculo de distâncias
+            return Call.of("PUT /locations/{id}", api.put("/locations/" + id,
+                    body(location.latitude(), location.longitude(), random)));
+        }
+
+        created.remove(id);
+        return Call.of("DELETE /locations/{id}", api.delete("/locations/" + id));
+    }
+
+    private Call create(SplittableRandom random) {
+        double[] point = grid.nextPoint();
+        return new Call("POST /locations", api.post("/locations", body(point[0], point[1], random)), response -> {
+            long id = api.idOf(response);
+            created.put(id, new Created(id, point[0], point[1]));
+            locations.add(id);
+        }, () -> {
+        });
+    }
+
+    private Object body(double latitude, double longitude, SplittableRandom random) {
+        LocationType[] types = LocationType.values();
+        return Seeder.body(
+                "name", "Local " + sequence.incrementAndGet(),
+                "latitude", latitude,
+                "longitude", longitude,
+                "type", types[random.nextInt(types.length)]);
+    }
+}
@@ -0,0 +1,17 @@
+package iot.logi.api.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Coordenadas sempre distintas: o espaçamento de 0,02° fica acima da tolerância de proximidade (~0,01°)
+final class LocationGrid {
+
+    private static final int COLUMNS = 2000;
+    private static final double SPACING = 0.02;
+
+    private final AtomicLong next = new AtomicLong();
+
+    double[] nextPoint() {
+        long n = next.getAndIncrement();
+        return new double[]{-33 + (n / COLUMNS) * SPACING, -73 + (n % COLUMNS) * SPACING};
+    }
+}
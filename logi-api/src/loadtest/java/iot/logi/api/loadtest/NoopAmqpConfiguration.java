@@ -0,0 +1,23 @@
+package iot.logi.api.loadtest;
+
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+// Substitui o CachingConnectionFactory do Spring Boot: nada é enviado e nenhum broker é necessário
+@Configuration
+@Profile("loadtest")
+public class NoopAmqpConfiguration {
+
+    @Bean
+    @Primary
+    public ConnectionFactory noopConnectionFactory() {
+        return Mockito.mock(ConnectionFactory.class, Mockito.withSettings()
+                .defaultAnswer(Answers.RETURNS_DEEP_STUBS)
+                .stubOnly());
+    }
+}
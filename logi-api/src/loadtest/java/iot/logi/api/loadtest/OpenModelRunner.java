@@ -0,0 +1,128 @@
+package iot.logi.api.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modelo aberto: as chegadas seguem a taxa configurada independentemente das respostas, e cada latência é medida a
+ * partir do instante planejado da chegada. Se a API ou o próprio gerador atrasarem, a espera entra na medição em vez
+ * de reduzir a taxa.
+ */
+final class OpenModelRunner {
+
+    private final ApiClient api;
+    private final LatencyRecorder recorder;
+    private final List<String> names = new ArrayList<>();
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    OpenModelRunner(ApiClient api, LatencyRecorder recorder, Map<String, Integer> weights,
+                    Map<String, Scenario> available) {
+        this.api = api;
+        this.recorder = recorder;
+        this.cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            Scenario scenario = available.get(entry.getKey());
+            if (scenario == null) {
+                throw new IllegalArgumentException("Cenário desconhecido: " + entry.getKey()
+                        + " (disponíveis: " + String.join(", ", available.keySet()) + ")");
+            }
+
+            total += entry.getValue();
+            cumulativeWeights[names.size()] = total;
+            names.add(entry.getKey());
+            scenarios.add(scenario);
+        }
+        this.totalWeight = total;
+    }
+
+    void run(double rate, long warmupNanos, long durationNanos, int maxInFlight, long drainNanos)
+            throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(42);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        for (long arrival = 0; ; arrival++) {
+            long intended = start + (long) (arrival * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intended >= measureFrom;
+            int index = pick(random);
+            Scenario.Call call = scenarios.get(index).next(random);
+            if (call == null) {
+                if (measured) {
+                    recorder.skipped(names.get(index));
+                }
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                call.onFailure().run();
+                if (measured) {
+                    recorder.dropped(call.endpoint());
+                }
+                continue;
+            }
+
+            long sent = System.nanoTime();
+            api.send(call.request()).whenComplete((response, error) -> {
+                long done = System.nanoTime();
+                inFlight.release();
+                String failure = complete(call, response, error);
+                if (measured) {
+                    recorder.record(call.endpoint(), done - intended, done - sent, failure);
+                }
+            });
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, drainNanos, TimeUnit.NANOSECONDS)) {
+            System.out.printf("WARNING: %d requests still in flight after the run%n",
+                    maxInFlight - inFlight.availablePermits());
+        }
+    }
+
+    private int pick(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        int index = 0;
+        while (roll >= cumulativeWeights[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String complete(Scenario.Call call, HttpResponse<byte[]> response, Throwable error) {
+        if (error != null) {
+            call.onFailure().run();
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            return cause.getClass().getSimpleName();
+        }
+        if (response.statusCode() >= 400) {
+            call.onFailure().run();
+            return "HTTP " + response.statusCode();
+        }
+
+        try {
+            call.onSuccess().accept(response);
+            return null;
+        } catch (RuntimeException e) {
+            return "invalid response: " + e.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package iot.logi.api.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+// Cada chegada do modelo aberto pede ao cenário sorteado uma única requisição
+interface Scenario {
+
+    /**
+     * Chamado só pela thread que agenda as chegadas; os callbacks de {@link Call} rodam nas threads do cliente HTTP.
+     *
+     * @return {@code null} quando o cenário não tem o que enviar agora
+     */
+    Call next(SplittableRandom random);
+
+    record Call(String endpoint, HttpRequest request, Consumer<HttpResponse<byte[]>> onSuccess,
+                Runnable onFailure) {
+
+        static Call of(String endpoint, HttpRequest request) {
+            return new Call(endpoint, request, response -> {
+            }, () -> {
+            });
+        }
+    }
+}
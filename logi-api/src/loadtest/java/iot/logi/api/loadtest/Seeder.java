@@ -0,0 +1,74 @@
+package iot.logi.api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import iot.logi.api.models.enums.LocationType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// Carga inicial pela própria API, usando os endpoints de lote onde existem
+final class Seeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    record SeedData(List<Long> locationIds, List<Long> vehicleIds, List<Long> driverIds) {
+    }
+
+    private final ApiClient api;
+    private final LocationGrid grid;
+
+    Seeder(ApiClient api, LocationGrid grid) {
+        this.api = api;
+        this.grid = grid;
+    }
+
+    SeedData seed(int locations, int vehicles) throws IOException, InterruptedException {
+        LocationType[] types = LocationType.values();
+        List<Long> locationIds = createBatch("/locations/batch", locations, i -> {
+            double[] point = grid.nextPoint();
+            return body("name", "Carga " + i, "latitude", point[0], "longitude", point[1],
+                    "type", types[i % types.length]);
+        });
+        List<Long> deviceIds = createBatch("/devices/batch", vehicles, i -> body(
+                "name", "Rastreador " + i, "locationId", locationIds.get(i % locationIds.size()),
+                "type", "TRANSPORT", "status", "ACTIVE"));
+        List<Long> vehicleIds = createBatch("/vehicles/batch", vehicles, i -> body(
+                "name", "Caminhão " + i, "plate", String.format("LT%05d", i), "deviceId", deviceIds.get(i)));
+
+        List<Long> driverIds = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            driverIds.add(api.call(api.post("/drivers", body("name", "Motorista " + i))).path("id").asLong());
+        }
+        return new SeedData(locationIds, vehicleIds, driverIds);
+    }
+
+    private List<Long> createBatch(String path, int count, IntFunction<Map<String, Object>> item)
+            throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + BATCH_SIZE); i++) {
+                items.add(item.apply(i));
+            }
+
+            JsonNode result = api.call(api.post(path, items));
+            if (!result.path("errors").isEmpty()) {
+                throw new IOException("Falha na carga inicial em " + path + ": " + result.path("errors"));
+            }
+            result.path("ids").forEach(id -> ids.add(id.asLong()));
+        }
+        return ids;
+    }
+
+    static Map<String, Object> body(Object... keyValues) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            body.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return body;
+    }
+}
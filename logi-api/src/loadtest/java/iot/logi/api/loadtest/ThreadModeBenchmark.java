@@ -0,0 +1,193 @@
+package iot.logi.api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Carga em concorrência fixa (modelo fechado) contra uma instância já em execução, para comparar o perfil padrão
+ * com o perfil {@code virtual-threads}. Cada worker repete as requisições em sequência até o fim do tempo; as
+ * latências da fase de aquecimento são descartadas.
+ * <p>
+ * Usa só o JDK e pode ser executado direto do código-fonte, uma vez para cada perfil e com os mesmos parâmetros:
+ * <pre>
+ * java src/loadtest/java/iot/logi/api/loadtest/ThreadModeBenchmark.java --label=platform \
+ *     --url=http://localhost:8080/api/locations?size=20 --url=http://localhost:8080/api/transactions/1 \
+ *     --concurrency=400 --warmup=15 --duration=60
+ * </pre>
+ * A última linha da saída é um resumo separado por tabulações, para colar as execuções lado a lado.
+ */
+public class ThreadModeBenchmark {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<HttpRequest> requests = options.urls.stream()
+                .map(url -> HttpRequest.newBuilder(URI.create(url)).timeout(options.requestTimeout).GET().build())
+                .toList();
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long deadline = measureFrom + options.duration.toNanos();
+
+        System.out.printf("%s: %d workers, %ds warmup, %ds measured, %d url(s)%n", options.label,
+                options.concurrency, options.warmup.toSeconds(), options.duration.toSeconds(), requests.size());
+
+        List<Worker> workers = new ArrayList<>(options.concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(options.concurrency);
+            for (int i = 0; i < options.concurrency; i++) {
+                Worker worker = new Worker(client, requests, i, measureFrom, deadline);
+                workers.add(worker);
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        report(options, workers);
+    }
+
+    private static void report(Options options, List<Worker> workers) {
+        int total = workers.stream().mapToInt(worker -> worker.count).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        long errors = 0;
+        Map<String, Long> failures = new TreeMap<>();
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+            errors += worker.errors;
+            worker.failures.forEach((reason, count) -> failures.merge(reason, count, Long::sum));
+        }
+        Arrays.sort(latencies);
+
+        double seconds = options.duration.toNanos() / 1e9;
+        double throughput = total / seconds;
+        System.out.printf("requests   %d (%d errors)%n", total, errors);
+        failures.forEach((reason, count) -> System.out.printf("  %-40s %d%n", reason, count));
+        System.out.printf("throughput %.1f req/s%n", throughput);
+        System.out.printf("latency ms p50 %.2f | p90 %.2f | p99 %.2f | p99.9 %.2f | max %.2f%n",
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                percentile(latencies, 99.9), percentile(latencies, 100));
+        System.out.printf("%s\t%d\t%.1f\t%.2f\t%.2f\t%d%n", options.label, options.concurrency, throughput,
+                percentile(latencies, 50), percentile(latencies, 99), errors);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return (double) sorted[Math.clamp(index, 0, sorted.length - 1)] / NANOS_PER_MILLI;
+    }
+
+    // Cada worker guarda as próprias latências para não haver contenção durante a medição
+    private static final class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final List<HttpRequest> requests;
+        private final long measureFrom;
+        private final long deadline;
+        private final Map<String, Long> failures = new TreeMap<>();
+        private int next;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(HttpClient client, List<HttpRequest> requests, int first, long measureFrom, long deadline) {
+            this.client = client;
+            this.requests = requests;
+            this.next = first;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                HttpRequest request = requests.get(next++ % requests.size());
+                String failure = send(request);
+                long end = System.nanoTime();
+                if (now < measureFrom) {
+                    continue;
+                }
+
+                if (failure != null) {
+                    errors++;
+                    failures.merge(failure, 1L, Long::sum);
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - now;
+            }
+        }
+
+        private String send(HttpRequest request) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() < 400 ? null : "HTTP " + response.statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "interrupted";
+            } catch (Exception e) {
+                return e.getClass().getSimpleName();
+            }
+        }
+    }
+
+    private record Options(String label, List<String> urls, int concurrency, Duration warmup, Duration duration,
+                           Duration requestTimeout) {
+
+        static Options parse(String[] args) {
+            String label = "run";
+            List<String> urls = new ArrayList<>();
+            int concurrency = 200;
+            Duration warmup = Duration.ofSeconds(10);
+            Duration duration = Duration.ofSeconds(30);
+            Duration requestTimeout = Duration.ofSeconds(30);
+            for (String arg : args) {
+                int split = arg.indexOf('=');
+                if (!arg.startsWith("--") || split < 0) {
+                    throw new IllegalArgumentException("Argumento inválido: " + arg);
+                }
+
+                String value = arg.substring(split + 1);
+                switch (arg.substring(2, split)) {
+                    case "label" -> label = value;
+                    case "url" -> urls.add(value);
+                    case "concurrency" -> concurrency = Integer.parseInt(value);
+                    case "warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                    case "duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                    case "timeout" -> requestTimeout = Duration.ofSeconds(Long.parseLong(value));
+                    default -> throw new IllegalArgumentException("Argumento desconhecido: " + arg);
+                }
+            }
+
+            if (urls.isEmpty()) {
+                throw new IllegalArgumentException("Informe ao menos uma --url");
+            }
+            return new Options(label, urls, concurrency, warmup, duration, requestTimeout);
+        }
+    }
+}
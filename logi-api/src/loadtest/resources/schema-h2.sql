@@ -0,0 +1,43 @@
+-- Executado após o Hibernate criar o schema no H2; equivalente ao schema-postgresql.sql
+-- O H2 não tem índices parciais: a regra de uma transação em andamento fica só na validação do serviço
+
+-- Paginação por keyset (name, id) nas listagens
+CREATE INDEX IF NOT EXISTS ix_devices_name_id ON devices (name, id);
+CREATE INDEX IF NOT EXISTS ix_drivers_name_id ON drivers (name, id);
+CREATE INDEX IF NOT EXISTS ix_locations_name_id ON locations (name, id);
+CREATE INDEX IF NOT EXISTS ix_vehicles_name_id ON vehicles (name, id);
+
+-- Filtros do GET /transactions/search, sem os índices parciais
+CREATE INDEX IF NOT EXISTS ix_transactions_dispatch_id ON transactions (dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_vehicle_dispatch_id ON transactions (vehicle, dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_driver_dispatch_id ON transactions (driver, dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_origin_dispatch_id ON transactions (origin_location, dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_destiny_dispatch_id ON transactions (destiny_location, dispatch_time, id);
+
+-- Sem particionamento no H2: uma única tabela de posições
+CREATE TABLE IF NOT EXISTS vehicle_positions (
+    transaction_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    recorded_at TIMESTAMP NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_vehicle_positions_transaction ON vehicle_positions (transaction_id, recorded_at);
+CREATE INDEX IF NOT EXISTS ix_vehicles_device ON vehicles (device);
+
+-- Sem ON CONFLICT no H2: a manutenção incremental fica desligada no perfil loadtest
+CREATE TABLE IF NOT EXISTS transaction_daily_rollups (
+    dimension VARCHAR(16) NOT NULL,
+    dimension_id BIGINT NOT NULL,
+    dispatch_day DATE NOT NULL,
+    transactions BIGINT NOT NULL,
+    completed BIGINT NOT NULL,
+    duration_seconds BIGINT NOT NULL,
+    distance_km DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (dimension, dimension_id, dispatch_day)
+);
+
+CREATE TABLE IF NOT EXISTS transaction_rollup_state (
+    id INT PRIMARY KEY,
+    backfilled_at TIMESTAMP NOT NULL
+);
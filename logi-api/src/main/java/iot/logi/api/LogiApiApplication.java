@@ -2,11 +2,17 @@ package iot.logi.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication
+@EnableScheduling
+// Cache por fora da transação: os @CacheEvict só rodam depois do commit
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class LogiApiApplication {
 
     public static void main(String[] args) {
@@ -1,7 +1,12 @@
 package iot.logi.api.controllers;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
 import iot.logi.api.dtos.DeviceDto;
-import iot.logi.api.models.Device;
+import iot.logi.api.dtos.DeviceView;
+import iot.logi.api.dtos.NearbyDeviceDto;
+import iot.logi.api.geo.NearbyQuery;
+import iot.logi.api.models.enums.DeviceType;
 import iot.logi.api.services.DeviceService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,10 +14,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/devices")
 public class DevicesController {
@@ -25,27 +34,56 @@ public class DevicesController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Device create(@Valid @RequestBody DeviceDto deviceDto) {
+    public DeviceView create(@Valid @RequestBody DeviceDto deviceDto) {
         return deviceService.createDevice(deviceDto);
     }
 
+    @PostMapping("/batch")
+    public BatchResult createBatch(@RequestBody List<DeviceDto> deviceDtos) {
+        return deviceService.createDevices(deviceDtos);
+    }
+
     @GetMapping("/{id}")
-    public Device get(@PathVariable Long id) {
-        return deviceService.findDeviceById(id);
+    public DeviceView get(@PathVariable Long id) {
+        return deviceService.findDeviceViewById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Page<Device>> getAll(
+    public ResponseEntity<Page<DeviceView>> getAll(
             @PageableDefault(page = 0, size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<Device> devices = deviceService.findAllDevices(pageable);
+        Page<DeviceView> devices = deviceService.findAllDevices(pageable);
         return ResponseEntity.ok(devices);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<DeviceView>> getAllAfter(
+            @RequestParam String after, @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(deviceService.findDevicesAfter(after, size));
+    }
+
+    @GetMapping("/nearby")
+    public List<NearbyDeviceDto> nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) DeviceType type) {
+        return deviceService.findNearbyDevices(new NearbyQuery(lat, lon, radiusKm, k), type);
+    }
+
     @PutMapping("/{id}")
-    public Device update(@PathVariable Long id, @Valid @RequestBody DeviceDto deviceDto) {
+    public DeviceView update(@PathVariable Long id, @Valid @RequestBody DeviceDto deviceDto) {
         return deviceService.updateDevice(id, deviceDto);
     }
 
+    @PostMapping("/{id}/heartbeat")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void heartbeat(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime timestamp) {
+        deviceService.recordHeartbeat(id, timestamp);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
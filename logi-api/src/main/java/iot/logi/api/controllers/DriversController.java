@@ -1,7 +1,8 @@
 package iot.logi.api.controllers;
 
+import iot.logi.api.dtos.CursorPage;
 import iot.logi.api.dtos.DriverDto;
-import iot.logi.api.models.Driver;
+import iot.logi.api.dtos.DriverView;
 import iot.logi.api.services.DriverService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,25 +26,31 @@ public class DriversController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Driver create(@Valid @RequestBody DriverDto driverDto) {
-        return driverService.createDriver(driverDto);
+    public DriverView create(@Valid @RequestBody DriverDto driverDto) {
+        return DriverView.from(driverService.createDriver(driverDto));
     }
 
     @GetMapping("/{id}")
-    public Driver get(@PathVariable Long id) {
-        return driverService.findDriverById(id);
+    public DriverView get(@PathVariable Long id) {
+        return driverService.findDriverViewById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Page<Driver>> getAll(
+    public ResponseEntity<Page<DriverView>> getAll(
             @PageableDefault(page = 0, size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<Driver> drivers = driverService.findAllDrivers(pageable);
+        Page<DriverView> drivers = driverService.findAllDrivers(pageable);
         return ResponseEntity.ok(drivers);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<DriverView>> getAllAfter(
+            @RequestParam String after, @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(driverService.findDriversAfter(after, size));
+    }
+
     @PutMapping("/{id}")
-    public Driver update(@PathVariable Long id, @Valid @RequestBody DriverDto driverDto) {
-        return driverService.updateDriver(id, driverDto);
+    public DriverView update(@PathVariable Long id, @Valid @RequestBody DriverDto driverDto) {
+        return DriverView.from(driverService.updateDriver(id, driverDto));
     }
 
     @DeleteMapping("/{id}")
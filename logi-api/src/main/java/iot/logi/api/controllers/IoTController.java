@@ -1,10 +1,40 @@
 package iot.logi.api.controllers;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import iot.logi.api.dtos.ReadingDto;
+import iot.logi.api.services.TelemetryIngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/iot")
 public class IoTController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final TelemetryIngestService telemetryIngestService;
+
+    @Autowired
+    public IoTController(TelemetryIngestService telemetryIngestService) {
+        this.telemetryIngestService = telemetryIngestService;
+    }
+
+    @PostMapping(value = "/readings", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public IngestResponse ingest(@RequestBody List<ReadingDto> readings) {
+        return new IngestResponse(telemetryIngestService.enqueue(readings));
+    }
+
+    @PostMapping(value = "/readings", consumes = APPLICATION_NDJSON)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public IngestResponse ingestNdjson(InputStream body) {
+        return new IngestResponse(telemetryIngestService.enqueueNdjson(body));
+    }
+}
+
+record IngestResponse(int accepted) {
 }
@@ -0,0 +1,33 @@
+package iot.logi.api.controllers;
+
+import iot.logi.api.live.LiveFilter;
+import iot.logi.api.live.LiveUpdateHub;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/live")
+public class LiveController {
+
+    private final LiveUpdateHub liveUpdateHub;
+
+    public LiveController(LiveUpdateHub liveUpdateHub) {
+        this.liveUpdateHub = liveUpdateHub;
+    }
+
+    // Eventos "device", "transaction" e "resync" (buffer descartado: recarregar o estado pela API)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(required = false) List<Long> deviceId,
+            @RequestParam(required = false) List<Long> vehicleId,
+            @RequestParam(required = false) List<Long> locationId
+    ) {
+        return liveUpdateHub.subscribe(LiveFilter.of(deviceId, vehicleId, locationId));
+    }
+}
@@ -1,7 +1,17 @@
 package iot.logi.api.controllers;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
+import iot.logi.api.dtos.DistanceMatrixDto;
+import iot.logi.api.dtos.ImportResult;
 import iot.logi.api.dtos.LocationDto;
-import iot.logi.api.models.Location;
+import iot.logi.api.dtos.LocationView;
+import iot.logi.api.dtos.NearbyLocationDto;
+import iot.logi.api.geo.DistanceMatrix;
+import iot.logi.api.geo.NearbyQuery;
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.services.DistanceMatrixService;
+import iot.logi.api.services.LocationImportService;
 import iot.logi.api.services.LocationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,41 +20,93 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/locations")
 public class LocationsController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String TEXT_CSV = "text/csv";
+
     private final LocationService locationService;
+    private final DistanceMatrixService distanceMatrixService;
+    private final LocationImportService locationImportService;
 
     @Autowired
-    public LocationsController(LocationService locationService) {
+    public LocationsController(LocationService locationService, DistanceMatrixService distanceMatrixService,
+                               LocationImportService locationImportService) {
         this.locationService = locationService;
+        this.distanceMatrixService = distanceMatrixService;
+        this.locationImportService = locationImportService;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Location create(@Valid @RequestBody LocationDto locationDto) {
-        return locationService.createLocation(locationDto);
+    public LocationView create(@Valid @RequestBody LocationDto locationDto) {
+        return LocationView.from(locationService.createLocation(locationDto));
+    }
+
+    @PostMapping("/batch")
+    public BatchResult createBatch(@RequestBody List<LocationDto> locationDtos) {
+        return locationService.createLocations(locationDtos);
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    public ImportResult importCsv(InputStream body) {
+        return locationImportService.importCsv(body);
+    }
+
+    @PostMapping(value = "/import", consumes = APPLICATION_NDJSON)
+    public ImportResult importNdjson(InputStream body) {
+        return locationImportService.importNdjson(body);
     }
 
     @GetMapping("/{id}")
-    public Location get(@PathVariable Long id) {
-        return locationService.findLocationById(id);
+    public LocationView get(@PathVariable Long id) {
+        return locationService.findLocationViewById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Page<Location>> getAll(
+    public ResponseEntity<Page<LocationView>> getAll(
             @PageableDefault(page = 0, size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<Location> locations = locationService.findAllLocations(pageable);
+        Page<LocationView> locations = locationService.findAllLocations(pageable);
         return ResponseEntity.ok(locations);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<LocationView>> getAllAfter(
+            @RequestParam String after, @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(locationService.findLocationsAfter(after, size));
+    }
+
+    @GetMapping("/nearby")
+    public List<NearbyLocationDto> nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) LocationType type) {
+        return locationService.findNearbyLocations(new NearbyQuery(lat, lon, radiusKm, k), type);
+    }
+
+    @PostMapping("/distance-matrix")
+    public ResponseEntity<StreamingResponseBody> distanceMatrix(@Valid @RequestBody DistanceMatrixDto matrixDto) {
+        DistanceMatrix matrix = distanceMatrixService.prepare(matrixDto);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> distanceMatrixService.write(matrixDto, matrix, outputStream));
+    }
+
     @PutMapping("/{id}")
-    public Location update(@PathVariable Long id, @Valid @RequestBody LocationDto locationDto) {
-        return locationService.updateLocation(id, locationDto);
+    public LocationView update(@PathVariable Long id, @Valid @RequestBody LocationDto locationDto) {
+        return LocationView.from(locationService.updateLocation(id, locationDto));
     }
 
     @DeleteMapping("/{id}")
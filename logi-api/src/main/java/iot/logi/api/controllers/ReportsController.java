@@ -0,0 +1,57 @@
+package iot.logi.api.controllers;
+
+import iot.logi.api.dtos.RollupRebuildResult;
+import iot.logi.api.dtos.RollupReportRow;
+import iot.logi.api.models.enums.RollupDimension;
+import iot.logi.api.services.ReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reports")
+public class ReportsController {
+
+    private final ReportService reportService;
+
+    public ReportsController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    // dimension: locations (por local de origem), vehicles ou drivers
+    @GetMapping("/{dimension}/daily")
+    public ResponseEntity<List<RollupReportRow>> getDaily(
+            @PathVariable String dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long id
+    ) {
+        return ResponseEntity.ok(reportService.findDaily(RollupDimension.of(dimension), from, to, id));
+    }
+
+    @GetMapping("/{dimension}")
+    public ResponseEntity<List<RollupReportRow>> getTotals(
+            @PathVariable String dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long id
+    ) {
+        return ResponseEntity.ok(reportService.findTotals(RollupDimension.of(dimension), from, to, id));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<RollupRebuildResult> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(new RollupRebuildResult(from, to, reportService.rebuild(from, to)));
+    }
+}
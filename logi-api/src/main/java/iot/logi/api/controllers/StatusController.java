@@ -1,75 +1,64 @@
 package iot.logi.api.controllers;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Autowired;
+import iot.logi.api.services.StatusProbe;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/status")
 public class StatusController {
 
-    private static final Logger log = LoggerFactory.getLogger(StatusController.class);
+    private static final StatusVersion UNKNOWN = new StatusVersion("UNKNOWN", null, null);
 
-    private final JdbcTemplate jdbcTemplate;
-    private RabbitTemplate rabbitTemplate;
+    private final StatusProbe statusProbe;
+    private final String commitHash = System.getenv("COMMIT_HASH") == null
+            ? "local-version"
+            : System.getenv("COMMIT_HASH");
 
     @Value("${spring.application.version}")
     private String version;
 
-    public StatusController(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
-    }
-
-    @Autowired
-    public StatusController(JdbcTemplate jdbcTemplate, RabbitTemplate rabbitTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
-        this.rabbitTemplate = rabbitTemplate;
+    public StatusController(StatusProbe statusProbe) {
+        this.statusProbe = statusProbe;
     }
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<StatusResponse> getStatus() {
-
-        boolean hasError = false;
-        StatusVersion databaseStatus;
-        try {
-            var databaseVersion = jdbcTemplate.queryForObject("SHOW server_version;", String.class);
-            databaseStatus = new StatusVersion("OK", databaseVersion);
-        } catch (Exception e) {
-            databaseStatus = new StatusVersion("ERROR", null);
-            log.error("Error getting database version", e);
-            hasError = true;
+        StatusProbe.Snapshot snapshot = statusProbe.getSnapshot();
+        boolean stale = statusProbe.isStale(snapshot);
+        if (snapshot == null) {
+            return ResponseEntity.ok(new StatusResponse("WARNING", UNKNOWN, UNKNOWN, commitHash, version, null, true));
         }
 
-        StatusVersion messageBrokerStatus;
-        try {
-            var messageBrokerVersion = rabbitTemplate.execute(channel -> channel.getConnection().getServerProperties().get("version").toString());
-            messageBrokerStatus = new StatusVersion("OK", messageBrokerVersion);
-        } catch (Exception e) {
-            messageBrokerStatus = new StatusVersion("ERROR", null);
-            log.error("Error getting message broker version", e);
-            hasError = true;
-        }
-        var commitHash = System.getenv("COMMIT_HASH") == null ? "local-version" : System.getenv("COMMIT_HASH");
-
-        var status = new StatusResponse(!hasError ? "OK" : "WARNING", databaseStatus, messageBrokerStatus, commitHash, version);
+        var status = new StatusResponse(
+                snapshot.healthy() && !stale ? "OK" : "WARNING",
+                StatusVersion.from(snapshot.database()),
+                StatusVersion.from(snapshot.messageBroker()),
+                commitHash,
+                version,
+                snapshot.checkedAt(),
+                stale
+        );
 
         return ResponseEntity.ok(status);
     }
 }
 
 record StatusResponse(String status, StatusVersion database, StatusVersion messageBroker, String commitHash,
-                      String apiVersion) {
+                      String apiVersion, Instant checkedAt, boolean stale) {
 }
 
-record StatusVersion(String status, String version) {
+record StatusVersion(String status, String version, Long latencyMs) {
+
+    static StatusVersion from(StatusProbe.Dependency dependency) {
+        return new StatusVersion(dependency.status(), dependency.version(), dependency.latencyMs());
+    }
 }
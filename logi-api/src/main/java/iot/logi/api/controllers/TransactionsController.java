@@ -1,7 +1,15 @@
 package iot.logi.api.controllers;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
+import iot.logi.api.dtos.TrackDto;
+import iot.logi.api.dtos.TransactionDistanceDto;
 import iot.logi.api.dtos.TransactionDto;
-import iot.logi.api.models.Transaction;
+import iot.logi.api.dtos.TransactionFilter;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.services.TransactionExportService;
+import iot.logi.api.models.enums.TransactionStatus;
+import iot.logi.api.services.TrackService;
 import iot.logi.api.services.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,33 +17,49 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionsController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TrackService trackService;
 
     @Autowired
-    public TransactionsController(TransactionService transactionService) {
+    public TransactionsController(TransactionService transactionService,
+                                  TransactionExportService transactionExportService, TrackService trackService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.trackService = trackService;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Transaction> createTransaction(
+    public ResponseEntity<TransactionView> createTransaction(
             @Valid @RequestBody TransactionDto transactionDto
     ) {
-        Transaction transaction = transactionService.createTransaction(transactionDto);
+        TransactionView transaction = transactionService.createTransaction(transactionDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createTransactions(@RequestBody List<TransactionDto> transactionDtos) {
+        return ResponseEntity.ok(transactionService.createTransactions(transactionDtos));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Transaction> getTransaction(@PathVariable Long id) {
-        Transaction transaction = transactionService.findTransactionById(id);
+    public ResponseEntity<TransactionView> getTransaction(@PathVariable Long id) {
+        TransactionView transaction = transactionService.findTransactionViewById(id);
         return ResponseEntity.ok(transaction);
     }
 
@@ -45,21 +69,92 @@ public class TransactionsController {
         return ResponseEntity.ok(distance);
     }
 
+    @GetMapping("/{id}/track")
+    public ResponseEntity<TrackDto> getTrack(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(defaultValue = "lttb") String algorithm,
+            @RequestParam(required = false) Double toleranceMeters
+    ) {
+        return ResponseEntity.ok(trackService.findTrack(id, maxPoints, TrackService.Algorithm.of(algorithm),
+                toleranceMeters));
+    }
+
+    @GetMapping(value = "/distances", params = "ids")
+    public ResponseEntity<List<TransactionDistanceDto>> getDistances(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(transactionService.findDistances(ids));
+    }
+
+    @GetMapping("/distances")
+    public ResponseEntity<Page<TransactionDistanceDto>> getAllDistances(
+            @PageableDefault(page = 0, size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable
+    ) {
+        return ResponseEntity.ok(transactionService.findAllDistances(pageable));
+    }
 
     @GetMapping
-    public ResponseEntity<Page<Transaction>> getAllTransactions(
+    public ResponseEntity<Page<TransactionView>> getAllTransactions(
             @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable pageable
     ) {
-        Page<Transaction> transactions = transactionService.findAllTransactions(pageable);
+        Page<TransactionView> transactions = transactionService.findAllTransactions(pageable);
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TransactionView>> searchTransactions(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) Long driverId,
+            @RequestParam(required = false) Long originLocationId,
+            @RequestParam(required = false) Long destinyLocationId,
+            @RequestParam(defaultValue = "${logi.transactions.late-after-minutes:480}") long lateAfterMinutes,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        TransactionFilter filter = new TransactionFilter(status != null ? TransactionStatus.of(status) : null, from, to,
+                vehicleId, driverId, originLocationId, destinyLocationId,
+                TransactionFilter.lateAfterMinutes(lateAfterMinutes));
+        return ResponseEntity.ok(transactionService.searchTransactions(filter, after, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) Long driverId,
+            @RequestParam(required = false) Long originLocationId,
+            @RequestParam(required = false) Long destinyLocationId,
+            @RequestParam(defaultValue = "${logi.transactions.late-after-minutes:480}") long lateAfterMinutes,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        TransactionFilter filter = new TransactionFilter(status != null ? TransactionStatus.of(status) : null, from, to,
+                vehicleId, driverId, originLocationId, destinyLocationId,
+                TransactionFilter.lateAfterMinutes(lateAfterMinutes));
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.of(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.extension() + "\"")
+                .body(outputStream -> transactionExportService.export(filter, exportFormat, outputStream));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<TransactionView>> getAllTransactionsAfter(
+            @RequestParam String after, @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(transactionService.findTransactionsAfter(after, size));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Transaction> updateTransaction(
+    public ResponseEntity<TransactionView> updateTransaction(
             @PathVariable Long id,
             @Valid @RequestBody TransactionDto transactionDto
     ) {
-        Transaction transaction = transactionService.updateTransaction(id, transactionDto);
+        TransactionView transaction = transactionService.updateTransaction(id, transactionDto);
         return ResponseEntity.ok(transaction);
     }
 
@@ -1,6 +1,9 @@
 package iot.logi.api.controllers;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
 import iot.logi.api.dtos.VehicleDto;
+import iot.logi.api.dtos.VehicleView;
 import iot.logi.api.models.Vehicle;
 import iot.logi.api.services.VehicleService;
 import jakarta.validation.Valid;
@@ -13,6 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/vehicles")
 public class VehiclesController {
@@ -25,24 +30,35 @@ public class VehiclesController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Vehicle create(@Valid @RequestBody VehicleDto vehicleDto) {
+    public VehicleView create(@Valid @RequestBody VehicleDto vehicleDto) {
         return vehicleService.createVehicle(vehicleDto);
     }
 
+    @PostMapping("/batch")
+    public BatchResult createBatch(@RequestBody List<VehicleDto> vehicleDtos) {
+        return vehicleService.createVehicles(vehicleDtos);
+    }
+
     @GetMapping("/{id}")
-    public Vehicle get(@PathVariable Long id) {
-        return vehicleService.findVehicleById(id);
+    public VehicleView get(@PathVariable Long id) {
+        return vehicleService.findVehicleViewById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Page<Vehicle>> getAll(
+    public ResponseEntity<Page<VehicleView>> getAll(
             @PageableDefault(page = 0, size = 10, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<Vehicle> vehicles = vehicleService.findAllVehicles(pageable);
+        Page<VehicleView> vehicles = vehicleService.findAllVehicles(pageable);
         return ResponseEntity.ok(vehicles);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<VehicleView>> getAllAfter(
+            @RequestParam String after, @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(vehicleService.findVehiclesAfter(after, size));
+    }
+
     @PutMapping("/{id}")
-    public Vehicle update(@PathVariable Long id, @Valid @RequestBody Vehicle vehicle) {
+    public VehicleView update(@PathVariable Long id, @Valid @RequestBody Vehicle vehicle) {
         return vehicleService.updateVehicle(id, vehicle);
     }
 
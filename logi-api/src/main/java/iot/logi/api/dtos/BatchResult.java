@@ -0,0 +1,15 @@
+package iot.logi.api.dtos;
+
+import java.util.Arrays;
+import java.util.List;
+
+// ids segue a ordem dos itens enviados, com null nas posições que falharam
+public record BatchResult(int received, int created, List<Long> ids, List<ItemError> errors) {
+
+    public record ItemError(int index, String message) {
+    }
+
+    public static BatchResult of(Long[] ids, List<ItemError> errors) {
+        return new BatchResult(ids.length, ids.length - errors.size(), Arrays.asList(ids), errors);
+    }
+}
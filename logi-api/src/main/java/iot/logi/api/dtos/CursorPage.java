@@ -0,0 +1,34 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.exceptions.ValidationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+    public static final int MAX_SIZE = 100;
+
+    // Busca um item a mais para saber se existe próxima página sem executar COUNT
+    public static Pageable fetchLimit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new ValidationException("Tamanho da página deve estar entre 1 e " + MAX_SIZE);
+        }
+        return PageRequest.ofSize(size + 1);
+    }
+
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, size, null);
+        }
+
+        List<T> content = List.copyOf(rows.subList(0, size));
+        return new CursorPage<>(content, size, cursorOf.apply(content.get(size - 1)).encode());
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), size, nextCursor);
+    }
+}
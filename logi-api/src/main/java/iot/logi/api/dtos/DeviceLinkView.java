@@ -0,0 +1,5 @@
+package iot.logi.api.dtos;
+
+// Local e veículo associados a um dispositivo (veículo nulo quando nenhum o usa)
+public record DeviceLinkView(Long deviceId, Long locationId, Long vehicleId) {
+}
@@ -0,0 +1,41 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.Device;
+import iot.logi.api.models.Location;
+import iot.logi.api.models.enums.DeviceStatus;
+import iot.logi.api.models.enums.DeviceType;
+
+import java.time.LocalDateTime;
+
+public record DeviceView(Long id, String name, SummaryView location, DeviceType type, DeviceStatus status,
+                         LocalDateTime lastTracking) {
+
+    public DeviceView(Long id, String name, Long locationId, String locationName, DeviceType type,
+                      DeviceStatus status, LocalDateTime lastTracking) {
+        this(id, name, SummaryView.of(locationId, locationName), type, status, lastTracking);
+    }
+
+    public static DeviceView from(Device device) {
+        Location location = device.getLocation();
+        return of(device, location != null ? new SummaryView(location.getId(), location.getName()) : null);
+    }
+
+    public static DeviceView of(Device device, SummaryView location) {
+        return new DeviceView(
+                device.getId(),
+                device.getName(),
+                location,
+                device.getType(),
+                device.getStatus(),
+                device.getLastTracking()
+        );
+    }
+
+    public DeviceView withLastTracking(LocalDateTime lastTracking) {
+        return new DeviceView(id, name, location, type, status, lastTracking);
+    }
+
+    public SummaryView summary() {
+        return new SummaryView(id, name);
+    }
+}
@@ -0,0 +1,21 @@
+package iot.logi.api.dtos;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Data
+public class DistanceMatrixDto {
+    @NotEmpty(message = "Localizações de origem são obrigatórias")
+    private List<Long> originIds;
+
+    // Quando vazio, calcula todos os pares entre as origens
+    @Nullable
+    private List<Long> destinyIds;
+}
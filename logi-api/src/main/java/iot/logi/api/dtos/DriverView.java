@@ -0,0 +1,14 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.Driver;
+
+public record DriverView(Long id, String name) {
+
+    public static DriverView from(Driver driver) {
+        return new DriverView(driver.getId(), driver.getName());
+    }
+
+    public SummaryView summary() {
+        return new SummaryView(id, name);
+    }
+}
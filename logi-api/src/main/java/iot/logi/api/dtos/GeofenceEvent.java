@@ -0,0 +1,12 @@
+package iot.logi.api.dtos;
+
+import java.time.LocalDateTime;
+
+public record GeofenceEvent(Kind kind, Long vehicleId, Long transactionId, Long locationId, String locationName,
+                            LocalDateTime recordedAt) {
+
+    public enum Kind {
+        ENTERED,
+        EXITED
+    }
+}
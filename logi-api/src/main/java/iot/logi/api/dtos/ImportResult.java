@@ -0,0 +1,10 @@
+package iot.logi.api.dtos;
+
+import java.util.List;
+
+// errors traz só as primeiras ocorrências; os totais contam todas as linhas
+public record ImportResult(int accepted, int duplicates, int invalid, List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+}
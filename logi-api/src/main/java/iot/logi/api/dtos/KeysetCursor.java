@@ -0,0 +1,30 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Posição opaca para paginação por keyset: id e, quando a ordem tem outra coluna antes do id (nome, despacho), o
+// valor dela no último item
+public record KeysetCursor(Long id, String name) {
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 2);
+            return new KeysetCursor(Long.parseLong(parts[0]), parts.length > 1 ? parts[1] : null);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor inválido", e);
+        }
+    }
+
+    public String encode() {
+        String raw = name != null ? id + ":" + name : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,21 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.Location;
+import iot.logi.api.models.enums.LocationType;
+
+public record LocationView(Long id, String name, double latitude, double longitude, LocationType type) {
+
+    public static LocationView from(Location location) {
+        return new LocationView(
+                location.getId(),
+                location.getName(),
+                location.getLatitude(),
+                location.getLongitude(),
+                location.getType()
+        );
+    }
+
+    public SummaryView summary() {
+        return new SummaryView(id, name);
+    }
+}
@@ -0,0 +1,10 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.enums.DeviceStatus;
+import iot.logi.api.models.enums.DeviceType;
+
+import java.time.LocalDateTime;
+
+public record NearbyDeviceDto(Long id, String name, DeviceType type, DeviceStatus status, LocalDateTime lastTracking,
+                              Long locationId, String locationName, double distanceKm) {
+}
@@ -0,0 +1,19 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.geo.NearbyPoint;
+import iot.logi.api.models.enums.LocationType;
+
+public record NearbyLocationDto(Long id, String name, LocationType type, double latitude, double longitude,
+                                double distanceKm) {
+
+    public static NearbyLocationDto from(NearbyPoint nearby) {
+        return new NearbyLocationDto(
+                nearby.point().id(),
+                nearby.point().name(),
+                nearby.point().type(),
+                nearby.point().latitude(),
+                nearby.point().longitude(),
+                nearby.distanceKm()
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.validators.Latitude;
+import iot.logi.api.validators.Longitude;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@Data
+public class ReadingDto {
+    @NotNull(message = "Dispositivo da leitura é obrigatório")
+    private Long deviceId;
+
+    @NotNull(message = "Data da leitura é obrigatória")
+    private LocalDateTime timestamp;
+
+    @Latitude
+    @NotNull(message = "Latitude da leitura é obrigatória")
+    private Double latitude;
+
+    @Longitude
+    @NotNull(message = "Longitude da leitura é obrigatória")
+    private Double longitude;
+
+    @Nullable
+    private Map<String, Double> sensors;
+}
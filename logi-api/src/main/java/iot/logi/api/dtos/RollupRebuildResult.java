@@ -0,0 +1,6 @@
+package iot.logi.api.dtos;
+
+import java.time.LocalDate;
+
+public record RollupRebuildResult(LocalDate from, LocalDate to, int rows) {
+}
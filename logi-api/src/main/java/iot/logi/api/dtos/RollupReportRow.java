@@ -0,0 +1,14 @@
+package iot.logi.api.dtos;
+
+import java.time.LocalDate;
+
+// day é nulo nos totais do período
+public record RollupReportRow(Long id, String name, LocalDate day, long transactions, long completed,
+                              Double averageDurationMinutes, double distanceKm) {
+
+    public static RollupReportRow of(Long id, String name, LocalDate day, long transactions, long completed,
+                                     long durationSeconds, double distanceKm) {
+        Double averageDurationMinutes = completed > 0 ? durationSeconds / 60.0 / completed : null;
+        return new RollupReportRow(id, name, day, transactions, completed, averageDurationMinutes, distanceKm);
+    }
+}
@@ -0,0 +1,9 @@
+package iot.logi.api.dtos;
+
+// Projeções JPQL não montam objetos aninhados: as views têm um construtor plano (id e nome) que monta o resumo aqui
+public record SummaryView(Long id, String name) {
+
+    public static SummaryView of(Long id, String name) {
+        return id == null ? null : new SummaryView(id, name);
+    }
+}
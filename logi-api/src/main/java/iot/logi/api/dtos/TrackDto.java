@@ -0,0 +1,8 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.geo.TrackPoint;
+
+import java.util.List;
+
+public record TrackDto(Long transactionId, int totalPoints, String algorithm, List<TrackPoint> points) {
+}
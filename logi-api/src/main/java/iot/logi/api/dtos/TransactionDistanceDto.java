@@ -0,0 +1,4 @@
+package iot.logi.api.dtos;
+
+public record TransactionDistanceDto(Long id, Double distanceKm) {
+}
@@ -0,0 +1,28 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.enums.TransactionEventType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// Corpo das mensagens transaction.*; só IDs, para não depender de entidades carregadas no lote
+public record TransactionEvent(TransactionEventType type, Long transactionId, Long originLocationId,
+                               Long destinyLocationId, Long vehicleId, Long driverId, LocalDateTime dispatchTime,
+                               LocalDateTime arrivalTime, Double distanceKm, Instant occurredAt) {
+
+    public static TransactionEvent of(TransactionEventType type, Transaction transaction, Instant occurredAt) {
+        return new TransactionEvent(
+                type,
+                transaction.getId(),
+                transaction.getOriginLocation().getId(),
+                transaction.getDestinyLocation().getId(),
+                transaction.getVehicle().getId(),
+                transaction.getDriver().getId(),
+                transaction.getDispatchTime(),
+                transaction.getArrivalTime(),
+                transaction.getDistanceKm(),
+                occurredAt
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.models.enums.TransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais sobre dispatchTime [from, to), status, veículo, motorista, origem e destino.
+ * {@code lateAfter} é a duração a partir do despacho que torna a viagem LATE (chegou depois) ou OVERDUE (ainda
+ * em andamento).
+ */
+public record TransactionFilter(TransactionStatus status, LocalDateTime from, LocalDateTime to, Long vehicleId,
+                                Long driverId, Long originLocationId, Long destinyLocationId, Duration lateAfter) {
+
+    public static final long MAX_LATE_AFTER_MINUTES = 366L * 24 * 60;
+
+    public TransactionFilter {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ValidationException("Início do período deve ser anterior ao fim");
+        }
+        if (lateAfter == null || lateAfter.isNegative() || lateAfter.isZero()) {
+            throw new ValidationException("Prazo para atraso deve ser positivo");
+        }
+    }
+
+    // Valida antes de converter: minutos fora da faixa estourariam Duration e LocalDateTime (500 em vez de 400)
+    public static Duration lateAfterMinutes(long minutes) {
+        if (minutes < 1 || minutes > MAX_LATE_AFTER_MINUTES) {
+            throw new ValidationException("Prazo para atraso deve estar entre 1 e " + MAX_LATE_AFTER_MINUTES
+                    + " minutos");
+        }
+        return Duration.ofMinutes(minutes);
+    }
+}
@@ -0,0 +1,52 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.Transaction;
+
+import java.time.LocalDateTime;
+
+public record TransactionView(Long id, SummaryView originLocation, SummaryView destinyLocation, SummaryView vehicle,
+                              SummaryView driver, LocalDateTime dispatchTime, LocalDateTime arrivalTime,
+                              String cargoDescription, Double distanceKm) {
+
+    public TransactionView(Long id, Long originLocationId, String originLocationName, Long destinyLocationId,
+                           String destinyLocationName, Long vehicleId, String vehicleName, Long driverId,
+                           String driverName, LocalDateTime dispatchTime, LocalDateTime arrivalTime,
+                           String cargoDescription, Double distanceKm) {
+        this(
+                id,
+                SummaryView.of(originLocationId, originLocationName),
+                SummaryView.of(destinyLocationId, destinyLocationName),
+                SummaryView.of(vehicleId, vehicleName),
+                SummaryView.of(driverId, driverName),
+                dispatchTime,
+                arrivalTime,
+                cargoDescription,
+                distanceKm
+        );
+    }
+
+    public static TransactionView from(Transaction transaction) {
+        return of(
+                transaction,
+                new SummaryView(transaction.getOriginLocation().getId(), transaction.getOriginLocation().getName()),
+                new SummaryView(transaction.getDestinyLocation().getId(), transaction.getDestinyLocation().getName()),
+                new SummaryView(transaction.getVehicle().getId(), transaction.getVehicle().getName()),
+                new SummaryView(transaction.getDriver().getId(), transaction.getDriver().getName())
+        );
+    }
+
+    public static TransactionView of(Transaction transaction, SummaryView originLocation,
+                                     SummaryView destinyLocation, SummaryView vehicle, SummaryView driver) {
+        return new TransactionView(
+                transaction.getId(),
+                originLocation,
+                destinyLocation,
+                vehicle,
+                driver,
+                transaction.getDispatchTime(),
+                transaction.getArrivalTime(),
+                transaction.getCargoDescription(),
+                transaction.getDistanceKm()
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package iot.logi.api.dtos;
+
+import iot.logi.api.models.Device;
+import iot.logi.api.models.Vehicle;
+
+public record VehicleView(Long id, String name, String plate, SummaryView device) {
+
+    public VehicleView(Long id, String name, String plate, Long deviceId, String deviceName) {
+        this(id, name, plate, SummaryView.of(deviceId, deviceName));
+    }
+
+    public static VehicleView from(Vehicle vehicle) {
+        Device device = vehicle.getDevice();
+        return of(vehicle, device != null ? new SummaryView(device.getId(), device.getName()) : null);
+    }
+
+    public static VehicleView of(Vehicle vehicle, SummaryView device) {
+        return new VehicleView(vehicle.getId(), vehicle.getName(), vehicle.getPlate(), device);
+    }
+
+    public SummaryView summary() {
+        return new SummaryView(id, name);
+    }
+}
@@ -0,0 +1,12 @@
+package iot.logi.api.exceptions;
+
+public class IngestQueueFullException extends RuntimeException {
+
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+
+    public IngestQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
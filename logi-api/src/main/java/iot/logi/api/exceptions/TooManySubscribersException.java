@@ -0,0 +1,8 @@
+package iot.logi.api.exceptions;
+
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+}
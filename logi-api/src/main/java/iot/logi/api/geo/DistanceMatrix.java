@@ -0,0 +1,99 @@
+package iot.logi.api.geo;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Matriz de distâncias (km) com senos/cossenos pré-calculados uma vez por localização
+public final class DistanceMatrix {
+
+    private static final int ROWS_PER_TASK = 64;
+
+    private final double[] originLat;
+    private final double[] originLon;
+    private final double[] originCos;
+    private final double[] destinyLat;
+    private final double[] destinyLon;
+    private final double[] destinyCos;
+
+    public DistanceMatrix(List<LocationPoint> origins, List<LocationPoint> destinies) {
+        int rows = origins.size();
+        int columns = destinies.size();
+        this.originLat = new double[rows];
+        this.originLon = new double[rows];
+        this.originCos = new double[rows];
+        this.destinyLat = new double[columns];
+        this.destinyLon = new double[columns];
+        this.destinyCos = new double[columns];
+        fill(origins, originLat, originLon, originCos);
+        fill(destinies, destinyLat, destinyLon, destinyCos);
+    }
+
+    public int rows() {
+        return originLat.length;
+    }
+
+    public int columns() {
+        return destinyLat.length;
+    }
+
+    // Calcula as linhas [fromRow, toRow) em paralelo, em ordem de linha (row-major)
+    public float[] compute(ForkJoinPool pool, int fromRow, int toRow) {
+        float[] result = new float[(toRow - fromRow) * columns()];
+        pool.invoke(new RowsTask(result, fromRow, fromRow, toRow));
+        return result;
+    }
+
+    private void computeRows(float[] result, int offsetRow, int fromRow, int toRow) {
+        int columns = columns();
+        for (int row = fromRow; row < toRow; row++) {
+            double lat1 = originLat[row];
+            double lon1 = originLon[row];
+            double cos1 = originCos[row];
+            int base = (row - offsetRow) * columns;
+            for (int column = 0; column < columns; column++) {
+                double sinLat = Math.sin((destinyLat[column] - lat1) / 2);
+                double sinLon = Math.sin((destinyLon[column] - lon1) / 2);
+                double a = sinLat * sinLat + cos1 * destinyCos[column] * sinLon * sinLon;
+                result[base + column] = (float) (2 * GeoUtils.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a))));
+            }
+        }
+    }
+
+    private static void fill(List<LocationPoint> points, double[] lat, double[] lon, double[] cos) {
+        for (int i = 0; i < points.size(); i++) {
+            LocationPoint point = points.get(i);
+            lat[i] = Math.toRadians(point.latitude());
+            lon[i] = Math.toRadians(point.longitude());
+            cos[i] = Math.cos(lat[i]);
+        }
+    }
+
+    private final class RowsTask extends RecursiveAction {
+        private final float[] result;
+        private final int offsetRow;
+        private final int fromRow;
+        private final int toRow;
+
+        private RowsTask(float[] result, int offsetRow, int fromRow, int toRow) {
+            this.result = result;
+            this.offsetRow = offsetRow;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= ROWS_PER_TASK) {
+                computeRows(result, offsetRow, fromRow, toRow);
+                return;
+            }
+
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(
+                    new RowsTask(result, offsetRow, fromRow, middle),
+                    new RowsTask(result, offsetRow, middle, toRow)
+            );
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package iot.logi.api.geo;
+
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371; // Raio da Terra em km
+    public static final double HALF_CIRCUMFERENCE_KM = Math.PI * EARTH_RADIUS_KM;
+
+    private GeoUtils() {
+    }
+
+    // Cálculo de distância (Haversine)
+    public static double haversineKm(
+            double lat1, double lon1,
+            double lat2, double lon2
+    ) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+}
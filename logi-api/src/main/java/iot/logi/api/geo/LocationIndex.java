@@ -0,0 +1,180 @@
+package iot.logi.api.geo;
+
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.repository.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice em memória de todas as localizações, mantido pelo LocationService
+@Component
+public class LocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationIndex.class);
+
+    private static final double PROXIMITY_CELL_DEGREES = 0.01;
+    private static final double SEARCH_CELL_DEGREES = 0.5;
+    private static final double INITIAL_SEARCH_RADIUS_KM = 25;
+
+    private final LocationRepository locationRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LocationPoint> points = new HashMap<>();
+    private final SpatialGrid proximityGrid = new SpatialGrid(PROXIMITY_CELL_DEGREES);
+    private final SpatialGrid searchGrid = new SpatialGrid(SEARCH_CELL_DEGREES);
+    private volatile boolean loaded;
+
+    public LocationIndex(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            List<LocationPoint> all = locationRepository.findAllPoints();
+            points.clear();
+            proximityGrid.clear();
+            searchGrid.clear();
+            all.forEach(this::add);
+            loaded = true;
+            log.info("Location index loaded with {} locations", all.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<LocationPoint> get(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(points.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(LocationPoint point) {
+        putAll(List.of(point));
+    }
+
+    public void putAll(Collection<LocationPoint> newPoints) {
+        lock.writeLock().lock();
+        try {
+            for (LocationPoint point : newPoints) {
+                LocationPoint previous = points.remove(point.id());
+                if (previous != null) {
+                    proximityGrid.remove(previous);
+                    searchGrid.remove(previous);
+                }
+                add(point);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            LocationPoint previous = points.remove(id);
+            if (previous != null) {
+                proximityGrid.remove(previous);
+                searchGrid.remove(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean existsNear(double latitude, double longitude, double toleranceDegrees) {
+        lock.readLock().lock();
+        try {
+            return proximityGrid.existsNear(latitude, longitude, toleranceDegrees);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<NearbyPoint> withinRadius(double latitude, double longitude, double radiusKm, LocationType type) {
+        lock.readLock().lock();
+        try {
+            List<NearbyPoint> result = collectWithinRadius(latitude, longitude, radiusKm, type);
+            result.sort(Comparator.comparingDouble(NearbyPoint::distanceKm));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Aumenta o raio até encontrar k pontos: dentro do raio, os k mais próximos são os k vizinhos reais
+    public List<NearbyPoint> nearest(double latitude, double longitude, int k, LocationType type) {
+        lock.readLock().lock();
+        try {
+            double radiusKm = INITIAL_SEARCH_RADIUS_KM;
+            List<NearbyPoint> result = collectWithinRadius(latitude, longitude, radiusKm, type);
+            while (result.size() < k && radiusKm < GeoUtils.HALF_CIRCUMFERENCE_KM) {
+                radiusKm = Math.min(radiusKm * 2, GeoUtils.HALF_CIRCUMFERENCE_KM);
+                result = collectWithinRadius(latitude, longitude, radiusKm, type);
+            }
+
+            result.sort(Comparator.comparingDouble(NearbyPoint::distanceKm));
+            return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<NearbyPoint> collectWithinRadius(double latitude, double longitude, double radiusKm,
+                                                  LocationType type) {
+        double angularRadius = radiusKm / GeoUtils.EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        double lonDelta = 180;
+        if (minLat > -90 && maxLat < 90 && angularRadius < Math.PI / 2) {
+            double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+            lonDelta = ratio >= 1 ? 180 : Math.toDegrees(Math.asin(ratio));
+        }
+
+        List<NearbyPoint> result = new ArrayList<>();
+        searchGrid.visitBox(minLat, maxLat, longitude - lonDelta, longitude + lonDelta, point -> {
+            if (type == null || point.type() == type) {
+                double distanceKm = GeoUtils.haversineKm(latitude, longitude, point.latitude(), point.longitude());
+                if (distanceKm <= radiusKm) {
+                    result.add(new NearbyPoint(point, distanceKm));
+                }
+            }
+            return true;
+        });
+        return result;
+    }
+
+    private void add(LocationPoint point) {
+        points.put(point.id(), point);
+        proximityGrid.add(point);
+        searchGrid.add(point);
+    }
+}
@@ -0,0 +1,17 @@
+package iot.logi.api.geo;
+
+import iot.logi.api.models.Location;
+import iot.logi.api.models.enums.LocationType;
+
+public record LocationPoint(Long id, String name, LocationType type, double latitude, double longitude) {
+
+    public static LocationPoint from(Location location) {
+        return new LocationPoint(
+                location.getId(),
+                location.getName(),
+                location.getType(),
+                location.getLatitude(),
+                location.getLongitude()
+        );
+    }
+}
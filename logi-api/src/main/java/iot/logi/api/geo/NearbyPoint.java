@@ -0,0 +1,4 @@
+package iot.logi.api.geo;
+
+public record NearbyPoint(LocationPoint point, double distanceKm) {
+}
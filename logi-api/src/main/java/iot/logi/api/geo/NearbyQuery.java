@@ -0,0 +1,30 @@
+package iot.logi.api.geo;
+
+import iot.logi.api.exceptions.ValidationException;
+
+public record NearbyQuery(double latitude, double longitude, Double radiusKm, Integer k) {
+
+    public static final int MAX_RESULTS = 1000;
+
+    public NearbyQuery {
+        if (latitude < -90 || latitude > 90) {
+            throw new ValidationException("Latitude inválida");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new ValidationException("Longitude inválida");
+        }
+        if (radiusKm == null && k == null) {
+            throw new ValidationException("Informe o raio (radiusKm) ou a quantidade de resultados (k)");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new ValidationException("Raio deve ser maior que zero");
+        }
+        if (k != null && (k < 1 || k > MAX_RESULTS)) {
+            throw new ValidationException("Quantidade de resultados deve estar entre 1 e " + MAX_RESULTS);
+        }
+    }
+
+    public int limit() {
+        return k != null ? k : MAX_RESULTS;
+    }
+}
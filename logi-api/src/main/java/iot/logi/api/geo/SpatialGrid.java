@@ -0,0 +1,124 @@
+package iot.logi.api.geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Grade uniforme em graus; não é thread-safe, o acesso concorrente fica a cargo de quem a utiliza
+public class SpatialGrid {
+
+    private final double cellSize;
+    private final int lonCells;
+    private final Map<Long, List<LocationPoint>> cells = new HashMap<>();
+
+    public SpatialGrid(double cellSizeDegrees) {
+        this.cellSize = cellSizeDegrees;
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    public void add(LocationPoint point) {
+        cells.computeIfAbsent(keyOf(point.latitude(), point.longitude()), key -> new ArrayList<>(2)).add(point);
+    }
+
+    public void remove(LocationPoint point) {
+        long key = keyOf(point.latitude(), point.longitude());
+        List<LocationPoint> cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+
+        cell.removeIf(candidate -> candidate.id().equals(point.id()));
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+    }
+
+    // Diferença menor que a tolerância nos dois eixos, como em LocationRepository.existsByNearbyCoordinates
+    public boolean existsNear(double latitude, double longitude, double toleranceDegrees) {
+        return !visitBox(
+                latitude - toleranceDegrees, latitude + toleranceDegrees,
+                longitude - toleranceDegrees, longitude + toleranceDegrees,
+                point -> Math.abs(point.latitude() - latitude) >= toleranceDegrees
+                        || Math.abs(point.longitude() - longitude) >= toleranceDegrees
+        );
+    }
+
+    /**
+     * Percorre os pontos das células que cobrem a caixa informada até que {@code visitor} retorne {@code false}.
+     * Os pontos não são filtrados pela caixa; longitudes fora de [-180, 180] dão a volta no antimeridiano.
+     *
+     * @return {@code false} se a visita foi interrompida
+     */
+    public boolean visitBox(double minLat, double maxLat, double minLon, double maxLon,
+                            Predicate<LocationPoint> visitor) {
+        int fromLat = latIndex(Math.max(minLat, -90));
+        int toLat = latIndex(Math.min(maxLat, 90));
+        long fromLon = (long) Math.floor((minLon + 180) / cellSize);
+        long toLon = (long) Math.floor((maxLon + 180) / cellSize);
+        if (toLon - fromLon + 1 >= lonCells) {
+            fromLon = 0;
+            toLon = lonCells - 1;
+        }
+
+        long boxCells = (long) (toLat - fromLat + 1) * (toLon - fromLon + 1);
+        if (boxCells > cells.size()) {
+            return visitOccupiedCells(fromLat, toLat, fromLon, toLon, visitor);
+        }
+
+        for (int lat = fromLat; lat <= toLat; lat++) {
+            for (long lon = fromLon; lon <= toLon; lon++) {
+                List<LocationPoint> cell = cells.get((long) lat * lonCells + Math.floorMod(lon, lonCells));
+                if (cell != null && !visitCell(cell, visitor)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Com caixas grandes e poucos pontos é mais barato varrer só as células ocupadas
+    private boolean visitOccupiedCells(int fromLat, int toLat, long fromLon, long toLon,
+                                       Predicate<LocationPoint> visitor) {
+        for (Map.Entry<Long, List<LocationPoint>> entry : cells.entrySet()) {
+            long key = entry.getKey();
+            int lat = (int) (key / lonCells);
+            int lon = (int) (key % lonCells);
+            if (lat < fromLat || lat > toLat || !lonInRange(lon, fromLon, toLon)) {
+                continue;
+            }
+            if (!visitCell(entry.getValue(), visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean lonInRange(int lon, long fromLon, long toLon) {
+        long shifted = fromLon + Math.floorMod(lon - fromLon, lonCells);
+        return shifted <= toLon;
+    }
+
+    private boolean visitCell(List<LocationPoint> cell, Predicate<LocationPoint> visitor) {
+        for (LocationPoint point : cell) {
+            if (!visitor.test(point)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long keyOf(double latitude, double longitude) {
+        long lon = Math.floorMod((long) Math.floor((longitude + 180) / cellSize), lonCells);
+        return (long) latIndex(latitude) * lonCells + lon;
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellSize);
+    }
+}
@@ -0,0 +1,6 @@
+package iot.logi.api.geo;
+
+import java.time.LocalDateTime;
+
+public record TrackPoint(LocalDateTime recordedAt, double latitude, double longitude) {
+}
@@ -0,0 +1,135 @@
+package iot.logi.api.geo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+// Simplificação de trajetos no plano equiretangular local, suficiente para trechos de uma viagem
+public final class TrackSimplifier {
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(GeoUtils.EARTH_RADIUS_KM) * 1000;
+
+    private TrackSimplifier() {
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: mantém o primeiro e o último ponto e escolhe, em cada um dos
+     * {@code maxPoints - 2} baldes, o ponto que forma o maior triângulo com o anterior escolhido e a média do
+     * balde seguinte.
+     */
+    public static List<TrackPoint> lttb(List<TrackPoint> points, int maxPoints) {
+        int size = points.size();
+        if (maxPoints >= size || maxPoints < 3) {
+            return maxPoints < 3 && size > maxPoints ? endpoints(points, maxPoints) : points;
+        }
+
+        double lonScale = Math.cos(Math.toRadians(meanLatitude(points)));
+        List<TrackPoint> sampled = new ArrayList<>(maxPoints);
+        sampled.add(points.getFirst());
+
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+        int selected = 0;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextFrom = to;
+            int nextTo = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                avgX += points.get(i).longitude() * lonScale;
+                avgY += points.get(i).latitude();
+            }
+            int nextCount = Math.max(1, nextTo - nextFrom);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            TrackPoint anchor = points.get(selected);
+            double anchorX = anchor.longitude() * lonScale;
+            double anchorY = anchor.latitude();
+            double maxArea = -1;
+            int best = from;
+            for (int i = from; i < to; i++) {
+                TrackPoint candidate = points.get(i);
+                double area = Math.abs((anchorX - avgX) * (candidate.latitude() - anchorY)
+                        - (anchorX - candidate.longitude() * lonScale) * (avgY - anchorY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+
+            sampled.add(points.get(best));
+            selected = best;
+        }
+
+        sampled.add(points.getLast());
+        return sampled;
+    }
+
+    // Douglas-Peucker iterativo: trajetos longos estourariam a pilha na versão recursiva
+    public static List<TrackPoint> douglasPeucker(List<TrackPoint> points, double toleranceMeters) {
+        int size = points.size();
+        if (size < 3) {
+            return points;
+        }
+
+        double lonScale = Math.cos(Math.toRadians(meanLatitude(points)));
+        BitSet keep = new BitSet(size);
+        keep.set(0);
+        keep.set(size - 1);
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{0, size - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+            double maxDistance = 0;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = distanceToSegmentMeters(points.get(i), points.get(first), points.get(last), lonScale);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            if (farthest >= 0 && maxDistance > toleranceMeters) {
+                keep.set(farthest);
+                ranges.push(new int[]{first, farthest});
+                ranges.push(new int[]{farthest, last});
+            }
+        }
+
+        List<TrackPoint> simplified = new ArrayList<>(keep.cardinality());
+        for (int i = keep.nextSetBit(0); i >= 0; i = keep.nextSetBit(i + 1)) {
+            simplified.add(points.get(i));
+        }
+        return simplified;
+    }
+
+    private static double distanceToSegmentMeters(TrackPoint point, TrackPoint start, TrackPoint end,
+                                                  double lonScale) {
+        double px = point.longitude() * lonScale;
+        double py = point.latitude();
+        double sx = start.longitude() * lonScale;
+        double sy = start.latitude();
+        double dx = end.longitude() * lonScale - sx;
+        double dy = end.latitude() - sy;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.clamp(((px - sx) * dx + (py - sy) * dy) / lengthSquared, 0, 1);
+        return Math.hypot(px - (sx + t * dx), py - (sy + t * dy)) * METERS_PER_DEGREE;
+    }
+
+    private static double meanLatitude(List<TrackPoint> points) {
+        return (points.getFirst().latitude() + points.getLast().latitude()) / 2;
+    }
+
+    private static List<TrackPoint> endpoints(List<TrackPoint> points, int maxPoints) {
+        return maxPoints <= 0 ? List.of() : maxPoints == 1 ? List.of(points.getFirst())
+                : List.of(points.getFirst(), points.getLast());
+    }
+}
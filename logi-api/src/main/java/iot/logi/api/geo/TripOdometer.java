@@ -0,0 +1,69 @@
+package iot.logi.api.geo;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Distância percorrida acumulada a partir das posições de uma viagem. Passos menores que {@code minStepMeters}
+ * são ruído de GPS e não movem a âncora; passos que exigiriam velocidade acima de {@code maxSpeedKmh} são
+ * descartados. Não é thread-safe.
+ */
+public class TripOdometer {
+
+    // Após tantos saltos seguidos, a âncora é que estava errada: reancora sem somar distância
+    private static final int MAX_CONSECUTIVE_OUTLIERS = 3;
+
+    private final double minStepKm;
+    private final double maxSpeedKmh;
+    private double travelledKm;
+    private TrackPoint anchor;
+    private int consecutiveOutliers;
+
+    public TripOdometer(double travelledKm, double minStepMeters, double maxSpeedKmh) {
+        this.travelledKm = travelledKm;
+        this.minStepKm = minStepMeters / 1000;
+        this.maxSpeedKmh = maxSpeedKmh;
+    }
+
+    /**
+     * @return {@code true} se a posição alterou a distância percorrida
+     */
+    public boolean accept(TrackPoint point) {
+        if (anchor == null) {
+            anchor = point;
+            return false;
+        }
+        if (!point.recordedAt().isAfter(anchor.recordedAt())) {
+            return false;
+        }
+
+        double stepKm = GeoUtils.haversineKm(anchor.latitude(), anchor.longitude(), point.latitude(),
+                point.longitude());
+        if (stepKm < minStepKm) {
+            return false;
+        }
+
+        double hours = Duration.between(anchor.recordedAt(), point.recordedAt()).toMillis() / 3_600_000.0;
+        if (stepKm / hours > maxSpeedKmh) {
+            if (++consecutiveOutliers >= MAX_CONSECUTIVE_OUTLIERS) {
+                anchor = point;
+                consecutiveOutliers = 0;
+            }
+            return false;
+        }
+
+        travelledKm += stepKm;
+        anchor = point;
+        consecutiveOutliers = 0;
+        return true;
+    }
+
+    public double getTravelledKm() {
+        return travelledKm;
+    }
+
+    // Instante da âncora atual: a retomada após um restart reprocessa o trajeto a partir dele
+    public LocalDateTime getAnchorTime() {
+        return anchor == null ? null : anchor.recordedAt();
+    }
+}
@@ -0,0 +1,63 @@
+package iot.logi.api.live;
+
+import iot.logi.api.dtos.DeviceLinkView;
+import iot.logi.api.models.Device;
+import iot.logi.api.models.enums.DeviceStatus;
+
+import java.time.LocalDateTime;
+
+// Campos nulos não mudaram: o write-behind do lastTracking não conhece status nem localização. Local e veículo
+// são completados pelo LiveUpdateHub antes da entrega, para os filtros por locationId e vehicleId
+public record DeviceUpdate(Long deviceId, Long locationId, Long vehicleId, DeviceStatus status,
+                           LocalDateTime lastTracking) implements LiveUpdate {
+
+    public static DeviceUpdate of(Device device) {
+        return new DeviceUpdate(
+                device.getId(),
+                device.getLocation() != null ? device.getLocation().getId() : null,
+                null,
+                device.getStatus(),
+                device.getLastTracking()
+        );
+    }
+
+    public static DeviceUpdate tracking(Long deviceId, LocalDateTime lastTracking) {
+        return new DeviceUpdate(deviceId, null, null, null, lastTracking);
+    }
+
+    public DeviceUpdate withLink(DeviceLinkView link) {
+        if (link == null) {
+            return this;
+        }
+
+        return new DeviceUpdate(
+                deviceId,
+                locationId != null ? locationId : link.locationId(),
+                vehicleId != null ? vehicleId : link.vehicleId(),
+                status,
+                lastTracking
+        );
+    }
+
+    @Override
+    public String key() {
+        return "device:" + deviceId;
+    }
+
+    @Override
+    public String eventName() {
+        return "device";
+    }
+
+    @Override
+    public LiveUpdate mergeWith(LiveUpdate newer) {
+        DeviceUpdate update = (DeviceUpdate) newer;
+        return new DeviceUpdate(
+                deviceId,
+                update.locationId != null ? update.locationId : locationId,
+                update.vehicleId != null ? update.vehicleId : vehicleId,
+                update.status != null ? update.status : status,
+                update.lastTracking != null ? update.lastTracking : lastTracking
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package iot.logi.api.live;
+
+import java.util.List;
+
+// Lote de mudanças de dispositivos (um flush do write-behind), entregue com uma única consulta de local e veículo
+public record DeviceUpdates(List<DeviceUpdate> updates) {
+}
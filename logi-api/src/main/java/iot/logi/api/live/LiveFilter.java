@@ -0,0 +1,35 @@
+package iot.logi.api.live;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+// Sem nenhum filtro o assinante recebe tudo; com filtros, basta casar com um deles
+public record LiveFilter(Set<Long> deviceIds, Set<Long> vehicleIds, Set<Long> locationIds) {
+
+    public static LiveFilter of(Collection<Long> deviceIds, Collection<Long> vehicleIds,
+                                Collection<Long> locationIds) {
+        return new LiveFilter(copyOf(deviceIds), copyOf(vehicleIds), copyOf(locationIds));
+    }
+
+    public boolean matches(LiveUpdate update) {
+        if (deviceIds.isEmpty() && vehicleIds.isEmpty() && locationIds.isEmpty()) {
+            return true;
+        }
+
+        if (update instanceof DeviceUpdate device) {
+            return deviceIds.contains(device.deviceId())
+                    || device.vehicleId() != null && vehicleIds.contains(device.vehicleId())
+                    || device.locationId() != null && locationIds.contains(device.locationId());
+        }
+
+        TransactionUpdate transaction = (TransactionUpdate) update;
+        return vehicleIds.contains(transaction.vehicleId())
+                || locationIds.contains(transaction.originLocationId())
+                || locationIds.contains(transaction.destinyLocationId());
+    }
+
+    private static Set<Long> copyOf(Collection<Long> ids) {
+        return ids == null ? Set.of() : Set.copyOf(ids.stream().filter(Objects::nonNull).toList());
+    }
+}
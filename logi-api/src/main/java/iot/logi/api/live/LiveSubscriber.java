@@ -0,0 +1,136 @@
+package iot.logi.api.live;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer limitado de um assinante. Quem publica só enfileira (sem I/O); o envio roda em uma thread virtual por
+ * assinante, então um navegador lento atrasa apenas a si mesmo. Enquanto o envio está em andamento, novas
+ * atualizações da mesma entidade substituem a pendente; se o buffer lota com entidades distintas, ele é descartado
+ * e o cliente recebe {@code resync} para recarregar o estado pela API. O estado é guardado por um
+ * {@link ReentrantLock}, não por {@code synchronized}, que no JDK 23 prende a carrier thread das threads virtuais.
+ */
+class LiveSubscriber {
+
+    private final SseEmitter emitter;
+    private final LiveFilter filter;
+    private final int capacity;
+    private final Map<String, LiveUpdate> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean resync;
+    private boolean heartbeat;
+    private boolean scheduled;
+
+    LiveSubscriber(SseEmitter emitter, LiveFilter filter, int capacity) {
+        this.emitter = emitter;
+        this.filter = filter;
+        this.capacity = capacity;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean accepts(LiveUpdate update) {
+        return filter.matches(update);
+    }
+
+    /**
+     * @return o resultado do enfileiramento; {@link Offer#schedule()} indica que o envio precisa ser agendado
+     */
+    Offer offer(LiveUpdate update) {
+        lock.lock();
+        try {
+            LiveUpdate previous = pending.get(update.key());
+            boolean coalesced = previous != null;
+            boolean overflowed = false;
+            if (coalesced) {
+                pending.put(update.key(), previous.mergeWith(update));
+            } else if (pending.size() >= capacity) {
+                pending.clear();
+                resync = true;
+                overflowed = true;
+            } else {
+                pending.put(update.key(), update);
+            }
+            return new Offer(schedule(), coalesced, overflowed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean requestHeartbeat() {
+        lock.lock();
+        try {
+            heartbeat = true;
+            return schedule();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Executado fora de qualquer lock do hub; só uma execução por assinante de cada vez
+    void drain() throws IOException {
+        while (true) {
+            List<LiveUpdate> batch;
+            boolean sendResync;
+            boolean sendHeartbeat;
+            lock.lock();
+            try {
+                if (pending.isEmpty() && !resync && !heartbeat) {
+                    scheduled = false;
+                    return;
+                }
+
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                sendResync = resync;
+                sendHeartbeat = heartbeat && batch.isEmpty() && !resync;
+                resync = false;
+                heartbeat = false;
+            } finally {
+                lock.unlock();
+            }
+
+            if (sendResync) {
+                emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+            }
+            for (LiveUpdate update : batch) {
+                emitter.send(SseEmitter.event().name(update.eventName()).data(update, MediaType.APPLICATION_JSON));
+            }
+            if (sendHeartbeat) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    void abandon() {
+        lock.lock();
+        try {
+            pending.clear();
+            scheduled = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Chamado com o lock adquirido
+    private boolean schedule() {
+        if (scheduled) {
+            return false;
+        }
+
+        scheduled = true;
+        return true;
+    }
+
+    record Offer(boolean schedule, boolean coalesced, boolean overflowed) {
+    }
+}
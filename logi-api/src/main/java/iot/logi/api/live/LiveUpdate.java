@@ -0,0 +1,11 @@
+package iot.logi.api.live;
+
+// Mudança de estado enviada pelo GET /live; atualizações com a mesma chave se fundem enquanto aguardam envio
+public sealed interface LiveUpdate permits DeviceUpdate, TransactionUpdate {
+
+    String key();
+
+    String eventName();
+
+    LiveUpdate mergeWith(LiveUpdate newer);
+}
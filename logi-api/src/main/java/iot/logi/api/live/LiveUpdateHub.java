@@ -0,0 +1,161 @@
+package iot.logi.api.live;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import iot.logi.api.dtos.DeviceLinkView;
+import iot.logi.api.dtos.TransactionEvent;
+import iot.logi.api.exceptions.TooManySubscribersException;
+import iot.logi.api.repository.DeviceRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Distribui as mudanças confirmadas (após o commit) para os assinantes do GET /live
+@Component
+public class LiveUpdateHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateHub.class);
+
+    private static final int LINK_QUERY_BATCH = 1000;
+
+    private final DeviceRepository deviceRepository;
+    private final List<LiveSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ReentrantLock subscribeLock = new ReentrantLock();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("live-sender-", 0).factory());
+    private final Counter coalesced;
+    private final Counter resyncs;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+
+    public LiveUpdateHub(DeviceRepository deviceRepository, MeterRegistry meterRegistry,
+                         @Value("${logi.live.max-subscribers:1000}") int maxSubscribers,
+                         @Value("${logi.live.buffer-size:256}") int bufferSize,
+                         @Value("${logi.live.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.deviceRepository = deviceRepository;
+        this.coalesced = meterRegistry.counter("logi.live.coalesced");
+        this.resyncs = meterRegistry.counter("logi.live.resyncs");
+        meterRegistry.gaugeCollectionSize("logi.live.subscribers", List.of(), subscribers);
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    public SseEmitter subscribe(LiveFilter filter) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, filter, bufferSize);
+        subscribeLock.lock();
+        try {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new TooManySubscribersException("Limite de assinantes atingido, tente novamente em instantes");
+            }
+            subscribers.add(subscriber);
+        } finally {
+            subscribeLock.unlock();
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // Comentário inicial para o navegador considerar a conexão aberta antes da primeira mudança
+        if (subscriber.requestHeartbeat()) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return emitter;
+    }
+
+    // TransactionOutbox publica o evento na transação de quem altera; só chega aqui depois do commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionEvent(TransactionEvent event) {
+        publish(TransactionUpdate.from(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceUpdate(DeviceUpdate update) {
+        publishDevices(List.of(update));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceUpdates(DeviceUpdates updates) {
+        publishDevices(updates.updates());
+    }
+
+    public void publish(LiveUpdate update) {
+        for (LiveSubscriber subscriber : subscribers) {
+            if (!subscriber.accepts(update)) {
+                continue;
+            }
+
+            LiveSubscriber.Offer offer = subscriber.offer(update);
+            if (offer.coalesced()) {
+                coalesced.increment();
+            }
+            if (offer.overflowed()) {
+                resyncs.increment();
+            }
+            if (offer.schedule()) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${logi.live.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (LiveSubscriber subscriber : subscribers) {
+            if (subscriber.requestHeartbeat()) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        senders.shutdownNow();
+    }
+
+    // Completa local e veículo de cada dispositivo, em lotes de consulta, só quando há assinantes
+    private void publishDevices(List<DeviceUpdate> updates) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < updates.size(); from += LINK_QUERY_BATCH) {
+            List<DeviceUpdate> chunk = updates.subList(from, Math.min(from + LINK_QUERY_BATCH, updates.size()));
+            Map<Long, DeviceLinkView> links = new HashMap<>();
+            deviceRepository.findLinksByIds(chunk.stream().map(DeviceUpdate::deviceId).toList())
+                    .forEach(link -> links.putIfAbsent(link.deviceId(), link));
+            chunk.forEach(update -> publish(update.withLink(links.get(update.deviceId()))));
+        }
+    }
+
+    private void drain(LiveSubscriber subscriber) {
+        try {
+            subscriber.drain();
+        } catch (Exception e) {
+            // Cliente desconectado: o Tomcat só avisa na próxima escrita
+            log.debug("Dropping live subscriber: {}", e.getMessage());
+            remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+        }
+    }
+
+    private void remove(LiveSubscriber subscriber) {
+        subscriber.abandon();
+        subscribers.remove(subscriber);
+    }
+}
@@ -0,0 +1,39 @@
+package iot.logi.api.live;
+
+import iot.logi.api.dtos.TransactionEvent;
+import iot.logi.api.models.enums.TransactionEventType;
+
+import java.time.LocalDateTime;
+
+public record TransactionUpdate(TransactionEventType type, Long transactionId, Long vehicleId, Long originLocationId,
+                                Long destinyLocationId, LocalDateTime dispatchTime, LocalDateTime arrivalTime)
+        implements LiveUpdate {
+
+    public static TransactionUpdate from(TransactionEvent event) {
+        return new TransactionUpdate(
+                event.type(),
+                event.transactionId(),
+                event.vehicleId(),
+                event.originLocationId(),
+                event.destinyLocationId(),
+                event.dispatchTime(),
+                event.arrivalTime()
+        );
+    }
+
+    @Override
+    public String key() {
+        return "transaction:" + transactionId;
+    }
+
+    @Override
+    public String eventName() {
+        return "transaction";
+    }
+
+    // Cada evento já traz o estado completo da transação
+    @Override
+    public LiveUpdate mergeWith(LiveUpdate newer) {
+        return newer;
+    }
+}
@@ -0,0 +1,104 @@
+package iot.logi.api.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Mede o JDBC na conexão, abaixo do Hibernate e do JdbcTemplate: aquisição da conexão, preparo, execução, lotes,
+ * commit/rollback e cada {@code ResultSet.next()} (com fetch size, é ali que o cursor busca mais linhas no banco).
+ * O tempo vai para o {@link RequestDbTime} da thread atual; fora de uma requisição nada é medido.
+ */
+public class DbTimeDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> ROUND_TRIP_METHODS = Set.of(
+            "prepareStatement", "prepareCall", "commit", "rollback", "next");
+    private static final Set<Class<?>> WRAPPED_TYPES = Set.of(
+            Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class);
+
+    public DbTimeDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return wrap(Connection.class, super.getConnection());
+        } finally {
+            RequestDbTime.add(System.nanoTime() - start, 0);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return wrap(Connection.class, super.getConnection(username, password));
+        } finally {
+            RequestDbTime.add(System.nanoTime() - start, 0);
+        }
+    }
+
+    // Mantém o fechamento do pool no shutdown, que o Spring infere pelo close() do bean exposto
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(DbTimeDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new TimedInvocation(target)));
+    }
+
+    private record TimedInvocation(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+
+            boolean execute = EXECUTE_METHODS.contains(name);
+            boolean timed = (execute || ROUND_TRIP_METHODS.contains(name)) && RequestDbTime.isActive();
+            long start = timed ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (timed) {
+                    RequestDbTime.add(System.nanoTime() - start, execute ? 1 : 0);
+                }
+            }
+
+            Class<?> returnType = method.getReturnType();
+            return result != null && WRAPPED_TYPES.contains(returnType) ? wrap(cast(returnType), result) : result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<Object> cast(Class<?> type) {
+            return (Class<Object>) type;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package iot.logi.api.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Todo acesso ao banco (JPA, JdbcTemplate, BatchInserter) passa pelo DataSource medido
+@Component
+public class DbTimeDataSourceWrapper implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DbTimeDataSource)) {
+            return new DbTimeDataSource(dataSource);
+        }
+        return bean;
+    }
+}
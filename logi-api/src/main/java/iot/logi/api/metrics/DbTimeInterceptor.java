@@ -0,0 +1,92 @@
+package iot.logi.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica o tempo de banco de cada requisição com as mesmas tags de {@code http.server.requests} (method, uri,
+ * status), para separar SQL lento de serialização lenta na mesma rota. Respostas em streaming (export) seguem
+ * acumulando na thread do {@code StreamingResponseBody} e são publicadas quando o despacho assíncrono termina.
+ */
+@Component
+public class DbTimeInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    public static final String DB_TIMER = "logi.http.db";
+    public static final String DB_STATEMENTS = "logi.http.db.statements";
+
+    private static final String ACCUMULATOR_ATTRIBUTE = DbTimeInterceptor.class.getName() + ".accumulator";
+
+    private final MeterRegistry meterRegistry;
+
+    public DbTimeInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // No despacho assíncrono a requisição já tem acumulador
+        if (request.getAttribute(ACCUMULATOR_ATTRIBUTE) instanceof RequestDbTime.Accumulator accumulator) {
+            RequestDbTime.resume(accumulator);
+        } else {
+            request.setAttribute(ACCUMULATOR_ATTRIBUTE, RequestDbTime.start());
+        }
+        return true;
+    }
+
+    // O acumulador fica na requisição e segue para a thread da resposta assíncrona
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestDbTime.stop();
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(ACCUMULATOR_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof RequestDbTime.Accumulator accumulator) {
+            RequestDbTime.resume(accumulator);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestDbTime.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestDbTime.stop();
+        if (!(request.getAttribute(ACCUMULATOR_ATTRIBUTE) instanceof RequestDbTime.Accumulator accumulator)) {
+            return;
+        }
+
+        request.removeAttribute(ACCUMULATOR_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        String status = String.valueOf(response.getStatus());
+        Timer.builder(DB_TIMER)
+                .description("Tempo de JDBC por requisição")
+                .tags("method", method, "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(accumulator.nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(DB_STATEMENTS)
+                .description("Comandos SQL executados por requisição")
+                .tags("method", method, "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(accumulator.statements);
+    }
+}
@@ -0,0 +1,44 @@
+package iot.logi.api.metrics;
+
+// Tempo de JDBC acumulado na thread da requisição; alimentado pelo DbTimeDataSource
+public final class RequestDbTime {
+
+    private static final ThreadLocal<Accumulator> CURRENT = new ThreadLocal<>();
+
+    private RequestDbTime() {
+    }
+
+    static Accumulator start() {
+        Accumulator accumulator = new Accumulator();
+        CURRENT.set(accumulator);
+        return accumulator;
+    }
+
+    // Respostas assíncronas continuam o mesmo acumulador em outra thread
+    static void resume(Accumulator accumulator) {
+        CURRENT.set(accumulator);
+    }
+
+    static Accumulator stop() {
+        Accumulator accumulator = CURRENT.get();
+        CURRENT.remove();
+        return accumulator;
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void add(long nanos, int statements) {
+        Accumulator accumulator = CURRENT.get();
+        if (accumulator != null) {
+            accumulator.nanos += nanos;
+            accumulator.statements += statements;
+        }
+    }
+
+    static final class Accumulator {
+        long nanos;
+        int statements;
+    }
+}
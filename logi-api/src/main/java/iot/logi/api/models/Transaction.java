@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -42,4 +43,14 @@ public class Transaction {
 
     @Column(name = "cargo_description", length = 80, nullable = true)
     private String cargoDescription;
+
+    @Column(name = "distance_km", nullable = true)
+    private Double distanceKm;
+
+    // Mantidos pelo TripDistanceTracker; fora do insert/update da entidade para não sobrescrever o checkpoint
+    @Column(name = "travelled_km", nullable = true, insertable = false, updatable = false)
+    private Double travelledKm;
+
+    @Column(name = "travelled_until", nullable = true, insertable = false, updatable = false)
+    private LocalDateTime travelledUntil;
 }
@@ -0,0 +1,32 @@
+package iot.logi.api.models.enums;
+
+import iot.logi.api.exceptions.ValidationException;
+
+import java.util.Locale;
+
+// Agrupamentos de transaction_daily_rollups; LOCATION é sempre o local de origem
+public enum RollupDimension {
+    LOCATION("locations"),
+    VEHICLE("vehicles"),
+    DRIVER("drivers");
+
+    private final String path;
+
+    RollupDimension(String path) {
+        this.path = path;
+    }
+
+    public static RollupDimension of(String value) {
+        String normalized = value.toLowerCase(Locale.ROOT);
+        for (RollupDimension dimension : values()) {
+            if (dimension.path.equals(normalized) || dimension.name().equalsIgnoreCase(normalized)) {
+                return dimension;
+            }
+        }
+        throw new ValidationException("Relatório inválido: " + value);
+    }
+
+    public String path() {
+        return path;
+    }
+}
@@ -0,0 +1,13 @@
+package iot.logi.api.models.enums;
+
+public enum TransactionEventType {
+    CREATED,
+    UPDATED,
+    DISPATCHED,
+    ARRIVED,
+    DELETED;
+
+    public String routingKey() {
+        return "transaction." + name().toLowerCase();
+    }
+}
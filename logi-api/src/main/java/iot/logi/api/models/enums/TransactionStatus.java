@@ -0,0 +1,22 @@
+package iot.logi.api.models.enums;
+
+import iot.logi.api.exceptions.ValidationException;
+
+import java.util.Locale;
+
+// Derivado de dispatchTime/arrivalTime; LATE e OVERDUE usam o prazo informado na busca
+public enum TransactionStatus {
+    PENDING,
+    ONGOING,
+    COMPLETED,
+    LATE,
+    OVERDUE;
+
+    public static TransactionStatus of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Status de transação inválido: " + value);
+        }
+    }
+}
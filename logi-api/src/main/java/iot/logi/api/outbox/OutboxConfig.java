@@ -0,0 +1,27 @@
+package iot.logi.api.outbox;
+
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Declarados pelo RabbitAdmin na primeira conexão; a fila durável guarda os eventos enquanto a event-api está fora
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public Declarables transactionEventsTopology(@Value("${logi.outbox.exchange:logi.events}") String exchange,
+                                                 @Value("${logi.outbox.queue:logi_transaction_events}") String queue) {
+        TopicExchange topicExchange = new TopicExchange(exchange, true, false);
+        Queue transactionEvents = QueueBuilder.durable(queue).build();
+        return new Declarables(
+                topicExchange,
+                transactionEvents,
+                BindingBuilder.bind(transactionEvents).to(topicExchange).with("transaction.#")
+        );
+    }
+}
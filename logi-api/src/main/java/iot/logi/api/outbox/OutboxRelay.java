@@ -0,0 +1,108 @@
+package iot.logi.api.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import iot.logi.api.models.OutboxEvent;
+import iot.logi.api.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Drena a outbox em lotes: trava as linhas com SKIP LOCKED, publica todas no mesmo canal, espera as confirmações do
+ * broker e só então apaga as linhas na mesma transação. Falha em qualquer ponto desfaz o lote, que é reenviado na
+ * próxima rodada (entrega at-least-once; o consumidor deduplica pelo messageId).
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final Counter failures;
+
+    @Value("${logi.outbox.relay-enabled:true}")
+    private boolean enabled;
+
+    @Value("${logi.outbox.exchange:logi.events}")
+    private String exchange;
+
+    @Value("${logi.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${logi.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.published = meterRegistry.counter("logi.outbox.published");
+        this.failures = meterRegistry.counter("logi.outbox.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${logi.outbox.poll-interval-ms:500}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> publishNextBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Error relaying outbox events, retrying on next poll: {}", e.getMessage());
+        }
+    }
+
+    private int publishNextBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // invoke mantém um único canal (do cache da connection factory) para o lote e as confirmações
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : events) {
+                operations.send(exchange, event.getRoutingKey(), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        published.increment(events.size());
+        return events.size();
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId(event.getAggregateType() + "-event-" + event.getId())
+                .setType(event.getRoutingKey())
+                .setTimestamp(Date.from(event.getCreatedAt()))
+                .build();
+    }
+}
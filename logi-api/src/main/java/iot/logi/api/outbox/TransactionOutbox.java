@@ -0,0 +1,95 @@
+package iot.logi.api.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import iot.logi.api.dtos.TransactionEvent;
+import iot.logi.api.models.OutboxEvent;
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.enums.TransactionEventType;
+import iot.logi.api.repository.OutboxEventRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Grava os eventos de ciclo de vida da transação na transação de quem chama: sem commit, sem evento
+@Component
+public class TransactionOutbox {
+
+    private static final String AGGREGATE_TYPE = "transaction";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TransactionOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<Transaction> transactions) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            events.add(event(TransactionEventType.CREATED, transaction, now));
+            addMilestones(events, null, null, transaction, now);
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    // Despacho e chegada só são emitidos na transição de nulo para preenchido
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(Transaction transaction, LocalDateTime previousDispatchTime,
+                        LocalDateTime previousArrivalTime) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>();
+        events.add(event(TransactionEventType.UPDATED, transaction, now));
+        addMilestones(events, previousDispatchTime, previousArrivalTime, transaction, now);
+        outboxEventRepository.saveAll(events);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Transaction transaction) {
+        outboxEventRepository.save(event(TransactionEventType.DELETED, transaction, Instant.now()));
+    }
+
+    private void addMilestones(List<OutboxEvent> events, LocalDateTime previousDispatchTime,
+                               LocalDateTime previousArrivalTime, Transaction transaction, Instant now) {
+        if (previousDispatchTime == null && transaction.getDispatchTime() != null) {
+            events.add(event(TransactionEventType.DISPATCHED, transaction, now));
+        }
+        if (previousArrivalTime == null && transaction.getArrivalTime() != null) {
+            events.add(event(TransactionEventType.ARRIVED, transaction, now));
+        }
+    }
+
+    // Também publicado localmente; o LiveUpdateHub só o recebe depois do commit
+    private OutboxEvent event(TransactionEventType type, Transaction transaction, Instant now) {
+        TransactionEvent event = TransactionEvent.of(type, transaction, now);
+        eventPublisher.publishEvent(event);
+        return OutboxEvent.builder()
+                .aggregateType(AGGREGATE_TYPE)
+                .aggregateId(transaction.getId())
+                .routingKey(type.routingKey())
+                .payload(toJson(event))
+                .createdAt(now)
+                .build();
+    }
+
+    private String toJson(TransactionEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento da transação", e);
+        }
+    }
+}
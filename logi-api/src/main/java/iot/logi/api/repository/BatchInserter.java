@@ -0,0 +1,107 @@
+package iot.logi.api.repository;
+
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.validators.ObjectsValidator;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Valida item a item e persiste os aceitos em blocos, para que o Hibernate agrupe os INSERTs em lotes JDBC.
+// Como @Repository, erros do banco chegam traduzidos para DataAccessException
+@Repository
+public class BatchInserter {
+
+    private final EntityManager entityManager;
+    private final ObjectsValidator<Object> validator;
+
+    @Value("${logi.batch.max-items:10000}")
+    private int maxItems;
+
+    @Value("${logi.batch.flush-size:500}")
+    private int flushSize;
+
+    public BatchInserter(EntityManager entityManager, ObjectsValidator<Object> validator) {
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    public static <D> Set<Long> idsOf(List<D> items, Function<D, Long> id) {
+        return items.stream()
+                .filter(Objects::nonNull)
+                .map(id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    public void checkSize(List<?> items) {
+        if (items.isEmpty() || items.size() > maxItems) {
+            throw new ValidationException("Envie entre 1 e " + maxItems + " itens por lote");
+        }
+    }
+
+    // Deve rodar dentro de uma transação: toEntity lança ValidationException para recusar um item,
+    // já um erro do banco interrompe o lote inteiro
+    public <D, E> BatchResult insert(List<D> items, Function<D, E> toEntity, Function<E, Long> idOf) {
+        checkSize(items);
+
+        Long[] ids = new Long[items.size()];
+        List<BatchResult.ItemError> errors = new ArrayList<>();
+        List<E> pending = new ArrayList<>(flushSize);
+        List<Integer> pendingIndexes = new ArrayList<>(flushSize);
+
+        for (int i = 0; i < items.size(); i++) {
+            D item = items.get(i);
+            try {
+                E entity = toEntity.apply(validate(item));
+                entityManager.persist(entity);
+                pending.add(entity);
+                pendingIndexes.add(i);
+            } catch (ValidationException e) {
+                errors.add(new BatchResult.ItemError(i, e.getMessage()));
+                continue;
+            }
+
+            if (pending.size() == flushSize) {
+                flush(pending, pendingIndexes, ids, idOf);
+            }
+        }
+        flush(pending, pendingIndexes, ids, idOf);
+
+        return BatchResult.of(ids, errors);
+    }
+
+    private <D> D validate(D item) {
+        if (item == null) {
+            throw new ValidationException("Item vazio");
+        }
+
+        Set<String> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(String.join(", ", violations));
+        }
+        return item;
+    }
+
+    // Descarrega o bloco e limpa o contexto de persistência para não acumular 10k entidades gerenciadas
+    private <E> void flush(List<E> pending, List<Integer> pendingIndexes, Long[] ids, Function<E, Long> idOf) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+        for (int i = 0; i < pending.size(); i++) {
+            ids[pendingIndexes.get(i)] = idOf.apply(pending.get(i));
+        }
+        entityManager.clear();
+        pending.clear();
+        pendingIndexes.clear();
+    }
+}
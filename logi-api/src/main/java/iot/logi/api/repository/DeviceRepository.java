@@ -1,9 +1,50 @@
 package iot.logi.api.repository;
 
+import iot.logi.api.dtos.DeviceLinkView;
+import iot.logi.api.dtos.DeviceView;
 import iot.logi.api.models.Device;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface DeviceRepository extends JpaRepository<Device, Long> {
+
+    // LEFT JOIN: o local do dispositivo é opcional
+    String DEVICE_VIEW_JPQL = """
+            SELECT new iot.logi.api.dtos.DeviceView(d.id, d.name, l.id, l.name, d.type, d.status, d.lastTracking)
+            FROM Device d LEFT JOIN d.location l
+            """;
+
+    @Query("SELECT d FROM Device d JOIN FETCH d.location l WHERE l.id IN :locationIds")
+    List<Device> findAllByLocationIds(@Param("locationIds") Collection<Long> locationIds);
+
+    @Query(value = DEVICE_VIEW_JPQL, countQuery = "SELECT COUNT(d) FROM Device d")
+    Page<DeviceView> findAllViews(Pageable pageable);
+
+    @Cacheable(cacheNames = "devices", unless = "#result == null")
+    @Query(DEVICE_VIEW_JPQL + "WHERE d.id = :id")
+    Optional<DeviceView> findViewById(@Param("id") Long id);
+
+    @Query(DEVICE_VIEW_JPQL + "ORDER BY d.name, d.id")
+    List<DeviceView> findFirstKeysetPage(Pageable pageable);
+
+    @Query(DEVICE_VIEW_JPQL + "WHERE (d.name, d.id) > (:name, :id) ORDER BY d.name, d.id")
+    List<DeviceView> findKeysetPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new iot.logi.api.dtos.DeviceLinkView(d.id, l.id, v.id) " +
+            "FROM Device d LEFT JOIN d.location l LEFT JOIN Vehicle v ON v.device = d WHERE d.id IN :ids")
+    List<DeviceLinkView> findLinksByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.id FROM Device d WHERE d.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,9 +1,41 @@
 package iot.logi.api.repository;
 
+import iot.logi.api.dtos.DriverView;
 import iot.logi.api.models.Driver;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, Long> {
+
+    String DRIVER_VIEW_JPQL = """
+            SELECT new iot.logi.api.dtos.DriverView(d.id, d.name)
+            FROM Driver d
+            """;
+
+    @Query(value = DRIVER_VIEW_JPQL, countQuery = "SELECT COUNT(d) FROM Driver d")
+    Page<DriverView> findAllViews(Pageable pageable);
+
+    @Cacheable(cacheNames = "drivers", unless = "#result == null")
+    @Query(DRIVER_VIEW_JPQL + "WHERE d.id = :id")
+    Optional<DriverView> findViewById(@Param("id") Long id);
+
+    @Query(DRIVER_VIEW_JPQL + "ORDER BY d.name, d.id")
+    List<DriverView> findFirstKeysetPage(Pageable pageable);
+
+    @Query(DRIVER_VIEW_JPQL + "WHERE (d.name, d.id) > (:name, :id) ORDER BY d.name, d.id")
+    List<DriverView> findKeysetPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT d.id FROM Driver d WHERE d.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
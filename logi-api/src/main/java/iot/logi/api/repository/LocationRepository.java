@@ -1,14 +1,29 @@
 package iot.logi.api.repository;
 
+import iot.logi.api.dtos.LocationView;
+import iot.logi.api.geo.LocationPoint;
 import iot.logi.api.models.Location;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
 
+    String LOCATION_VIEW_JPQL = """
+            SELECT new iot.logi.api.dtos.LocationView(l.id, l.name, l.latitude, l.longitude, l.type)
+            FROM Location l
+            """;
+
     @Query("""
                 SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END
                 FROM Location l
@@ -22,4 +37,26 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
             @Param("tolerance") double tolerance
     );
 
+    @Query("SELECT new iot.logi.api.geo.LocationPoint(l.id, l.name, l.type, l.latitude, l.longitude) FROM Location l")
+    List<LocationPoint> findAllPoints();
+
+    @Query("SELECT new iot.logi.api.geo.LocationPoint(l.id, l.name, l.type, l.latitude, l.longitude) " +
+            "FROM Location l WHERE l.id IN :ids")
+    List<LocationPoint> findPointsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = LOCATION_VIEW_JPQL, countQuery = "SELECT COUNT(l) FROM Location l")
+    Page<LocationView> findAllViews(Pageable pageable);
+
+    @Cacheable(cacheNames = "locations", unless = "#result == null")
+    @Query(LOCATION_VIEW_JPQL + "WHERE l.id = :id")
+    Optional<LocationView> findViewById(@Param("id") Long id);
+
+    @Query(LOCATION_VIEW_JPQL + "ORDER BY l.name, l.id")
+    List<LocationView> findFirstKeysetPage(Pageable pageable);
+
+    @Query(LOCATION_VIEW_JPQL + "WHERE (l.name, l.id) > (:name, :id) ORDER BY l.name, l.id")
+    List<LocationView> findKeysetPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT l.id FROM Location l WHERE l.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,143 @@
+package iot.logi.api.repository;
+
+import iot.logi.api.dtos.TransactionFilter;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.models.enums.TransactionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Busca e exportação filtradas de transações em SQL nativo. A busca ordena por (dispatch_time, id) e cada filtro
+ * tem um índice em schema-postgresql.sql com a coluna filtrada à frente e essa ordem em seguida; as condições de
+ * status repetem os predicados dos índices parciais para que o planejador possa usá-los.
+ */
+@Repository
+public class TransactionQueryRepository {
+
+    private static final String VIEW_SQL = """
+            SELECT t.id, t.origin_location, o.name AS origin_name, t.destiny_location, dl.name AS destiny_name,
+                   t.vehicle, v.name AS vehicle_name, t.driver, dr.name AS driver_name,
+                   t.dispatch_time, t.arrival_time, t.cargo_description, t.distance_km
+            FROM transactions t
+            JOIN locations o ON o.id = t.origin_location
+            JOIN locations dl ON dl.id = t.destiny_location
+            JOIN vehicles v ON v.id = t.vehicle
+            JOIN drivers dr ON dr.id = t.driver
+            """;
+
+    private static final RowMapper<TransactionView> VIEW_MAPPER = (rs, rowNum) -> new TransactionView(
+            rs.getLong("id"),
+            rs.getLong("origin_location"),
+            rs.getString("origin_name"),
+            rs.getLong("destiny_location"),
+            rs.getString("destiny_name"),
+            rs.getLong("vehicle"),
+            rs.getString("vehicle_name"),
+            rs.getLong("driver"),
+            rs.getString("driver_name"),
+            rs.getObject("dispatch_time", LocalDateTime.class),
+            rs.getObject("arrival_time", LocalDateTime.class),
+            rs.getString("cargo_description"),
+            rs.getObject("distance_km", Double.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public TransactionQueryRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${spring.jpa.properties.hibernate.jdbc.fetch_size:50}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Paginação por keyset sobre (dispatch_time, id), só entre as transações despachadas. As pendentes não têm
+     * despacho: com status PENDING a página segue o id e {@code afterDispatch} é ignorado.
+     */
+    public List<TransactionView> search(TransactionFilter filter, LocalDateTime afterDispatch, Long afterId,
+                                        int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> arguments = new ArrayList<>();
+        addConditions(filter, conditions, arguments);
+        String order;
+        if (filter.status() == TransactionStatus.PENDING) {
+            if (afterId != null) {
+                conditions.add("t.id > ?");
+                arguments.add(afterId);
+            }
+            order = "ORDER BY t.id LIMIT ?";
+        } else {
+            conditions.add("t.dispatch_time IS NOT NULL");
+            if (afterId != null) {
+                conditions.add("(t.dispatch_time, t.id) > (?, ?)");
+                arguments.add(afterDispatch);
+                arguments.add(afterId);
+            }
+            order = "ORDER BY t.dispatch_time, t.id LIMIT ?";
+        }
+        arguments.add(limit);
+        return jdbcTemplate.query(VIEW_SQL + where(conditions) + order, VIEW_MAPPER, arguments.toArray());
+    }
+
+    // Deve ser consumido dentro de uma transação (cursor no servidor) e fechado ao final
+    public Stream<TransactionView> stream(TransactionFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> arguments = new ArrayList<>();
+        addConditions(filter, conditions, arguments);
+        return streamingJdbcTemplate.queryForStream(VIEW_SQL + where(conditions) + "ORDER BY t.id", VIEW_MAPPER,
+                arguments.toArray());
+    }
+
+    private static void addConditions(TransactionFilter filter, List<String> conditions, List<Object> arguments) {
+        if (filter.status() != null) {
+            switch (filter.status()) {
+                case PENDING -> conditions.add("t.dispatch_time IS NULL");
+                case ONGOING -> conditions.add("t.dispatch_time IS NOT NULL AND t.arrival_time IS NULL");
+                case COMPLETED -> conditions.add("t.arrival_time IS NOT NULL");
+                // O prazo é um long validado, não texto do cliente
+                case LATE -> conditions.add("t.arrival_time IS NOT NULL AND t.arrival_time - t.dispatch_time > "
+                        + "INTERVAL '" + filter.lateAfter().toSeconds() + "' SECOND");
+                case OVERDUE -> {
+                    conditions.add("t.dispatch_time IS NOT NULL AND t.arrival_time IS NULL AND t.dispatch_time < ?");
+                    arguments.add(LocalDateTime.now().minus(filter.lateAfter()));
+                }
+            }
+        }
+        if (filter.from() != null) {
+            conditions.add("t.dispatch_time >= ?");
+            arguments.add(filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.add("t.dispatch_time < ?");
+            arguments.add(filter.to());
+        }
+        if (filter.vehicleId() != null) {
+            conditions.add("t.vehicle = ?");
+            arguments.add(filter.vehicleId());
+        }
+        if (filter.driverId() != null) {
+            conditions.add("t.driver = ?");
+            arguments.add(filter.driverId());
+        }
+        if (filter.originLocationId() != null) {
+            conditions.add("t.origin_location = ?");
+            arguments.add(filter.originLocationId());
+        }
+        if (filter.destinyLocationId() != null) {
+            conditions.add("t.destiny_location = ?");
+            arguments.add(filter.destinyLocationId());
+        }
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ";
+    }
+}
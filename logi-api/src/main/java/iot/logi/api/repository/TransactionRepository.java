@@ -1,17 +1,87 @@
 package iot.logi.api.repository;
 
+import iot.logi.api.dtos.TransactionDistanceDto;
+import iot.logi.api.dtos.TransactionView;
 import iot.logi.api.models.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    @Query("SELECT COUNT(t) > 0 FROM Transaction t " +
-            "WHERE (t.vehicle.id = :vehicleId OR t.driver.id = :driverId) " +
-            "AND (t.dispatchTime IS NOT NULL AND t.arrivalTime IS NULL)")
-    boolean hasOngoingTransaction(
-            @Param("vehicleId") Long vehicleId,
-            @Param("driverId") Long driverId);
+
+    // Projeção de leitura: uma única consulta com joins, sem carregar o grafo de entidades
+    String TRANSACTION_VIEW_JPQL = """
+            SELECT new iot.logi.api.dtos.TransactionView(
+                t.id, o.id, o.name, dl.id, dl.name, v.id, v.name, dr.id, dr.name,
+                t.dispatchTime, t.arrivalTime, t.cargoDescription, t.distanceKm)
+            FROM Transaction t
+                JOIN t.originLocation o
+                JOIN t.destinyLocation dl
+                JOIN t.vehicle v
+                JOIN t.driver dr
+            """;
+
+    // Haversine em SQL, mesma fórmula de GeoUtils.haversineKm
+    String DISTANCE_KM_SQL = """
+            (SELECT 6371 * 2 * ASIN(LEAST(1, SQRT(
+                        POWER(SIN(RADIANS(d.latitude - o.latitude) / 2), 2)
+                        + COS(RADIANS(o.latitude)) * COS(RADIANS(d.latitude))
+                        * POWER(SIN(RADIANS(d.longitude - o.longitude) / 2), 2))))
+             FROM locations o, locations d
+             WHERE o.id = transactions.origin_location AND d.id = transactions.destiny_location)
+            """;
+
+    @Query("SELECT new iot.logi.api.dtos.TransactionDistanceDto(t.id, t.distanceKm) FROM Transaction t WHERE t.id IN :ids")
+    List<TransactionDistanceDto> findDistancesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(
+            value = "SELECT new iot.logi.api.dtos.TransactionDistanceDto(t.id, t.distanceKm) FROM Transaction t",
+            countQuery = "SELECT COUNT(t) FROM Transaction t"
+    )
+    Page<TransactionDistanceDto> findAllDistances(Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE transactions SET distance_km = " + DISTANCE_KM_SQL +
+            "WHERE origin_location = :locationId OR destiny_location = :locationId", nativeQuery = true)
+    int recalculateDistancesForLocation(@Param("locationId") Long locationId);
+
+    // Percorre ix_transactions_missing_distance
+    @Query(value = "SELECT id FROM transactions WHERE distance_km IS NULL AND id > :afterId ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findMissingDistanceIds(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE transactions SET distance_km = " + DISTANCE_KM_SQL +
+            "WHERE id IN (:ids) AND distance_km IS NULL", nativeQuery = true)
+    int calculateDistances(@Param("ids") Collection<Long> ids);
+
+    @Query(value = TRANSACTION_VIEW_JPQL, countQuery = "SELECT COUNT(t) FROM Transaction t")
+    Page<TransactionView> findAllViews(Pageable pageable);
+
+    @Query(TRANSACTION_VIEW_JPQL + "WHERE t.id = :id")
+    Optional<TransactionView> findViewById(@Param("id") Long id);
+
+    @Query(TRANSACTION_VIEW_JPQL + "ORDER BY t.id")
+    List<TransactionView> findFirstKeysetPage(Pageable pageable);
+
+    @Query(TRANSACTION_VIEW_JPQL + "WHERE t.id > :id ORDER BY t.id")
+    List<TransactionView> findKeysetPageAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT t.vehicle.id FROM Transaction t " +
+            "WHERE t.dispatchTime IS NOT NULL AND t.arrivalTime IS NULL AND t.vehicle.id IN :vehicleIds")
+    Set<Long> findOngoingVehicleIds(@Param("vehicleIds") Collection<Long> vehicleIds);
+
+    @Query("SELECT t.driver.id FROM Transaction t " +
+            "WHERE t.dispatchTime IS NOT NULL AND t.arrivalTime IS NULL AND t.driver.id IN :driverIds")
+    Set<Long> findOngoingDriverIds(@Param("driverIds") Collection<Long> driverIds);
 }
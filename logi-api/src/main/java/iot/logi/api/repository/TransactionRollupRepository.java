@@ -0,0 +1,195 @@
+package iot.logi.api.repository;
+
+import iot.logi.api.dtos.RollupReportRow;
+import iot.logi.api.models.enums.RollupDimension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// transaction_daily_rollups (schema-postgresql.sql): uma linha por dimensão, entidade e dia de despacho
+@Repository
+public class TransactionRollupRepository {
+
+    public record Delta(RollupDimension dimension, Long dimensionId, LocalDate day, long transactions,
+                        long completed, long durationSeconds, double distanceKm) {
+
+        public boolean isEmpty() {
+            return transactions == 0 && completed == 0 && durationSeconds == 0 && distanceKm == 0;
+        }
+    }
+
+    public record DistanceChange(Long originLocationId, Long vehicleId, Long driverId, LocalDate day,
+                                 double distanceKm) {
+    }
+
+    // Deltas somados: transações concorrentes sobre o mesmo dia não se sobrescrevem
+    private static final String APPLY_DELTA_SQL = """
+            INSERT INTO transaction_daily_rollups
+                (dimension, dimension_id, dispatch_day, transactions, completed, duration_seconds, distance_km)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (dimension, dimension_id, dispatch_day) DO UPDATE SET
+                transactions = transaction_daily_rollups.transactions + EXCLUDED.transactions,
+                completed = transaction_daily_rollups.completed + EXCLUDED.completed,
+                duration_seconds = transaction_daily_rollups.duration_seconds + EXCLUDED.duration_seconds,
+                distance_km = transaction_daily_rollups.distance_km + EXCLUDED.distance_km
+            """;
+
+    // Bloqueia os upserts incrementais até o commit da reconstrução, que então não conta nada duas vezes
+    private static final String LOCK_SQL =
+            "LOCK TABLE transaction_daily_rollups IN SHARE ROW EXCLUSIVE MODE";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM transaction_daily_rollups WHERE dispatch_day >= ? AND dispatch_day < ?";
+
+    // Mesmas regras do TransactionRollups: dia do despacho, duração só com chegada após o despacho
+    private static final String REBUILD_SQL = """
+            INSERT INTO transaction_daily_rollups
+                (dimension, dimension_id, dispatch_day, transactions, completed, duration_seconds, distance_km)
+            SELECT '%1$s', t.%2$s, CAST(t.dispatch_time AS DATE), COUNT(*),
+                   SUM(CASE WHEN t.arrival_time >= t.dispatch_time THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN t.arrival_time >= t.dispatch_time
+                       THEN CAST(FLOOR(EXTRACT(EPOCH FROM (t.arrival_time - t.dispatch_time))) AS BIGINT)
+                       ELSE 0 END),
+                   COALESCE(SUM(t.distance_km), 0)
+            FROM transactions t
+            WHERE t.dispatch_time >= ? AND t.dispatch_time < ?
+            GROUP BY t.%2$s, CAST(t.dispatch_time AS DATE)
+            """;
+
+    private static final String DAILY_SQL = """
+            SELECT r.dimension_id, e.name, r.dispatch_day, r.transactions, r.completed, r.duration_seconds,
+                   r.distance_km
+            FROM transaction_daily_rollups r
+            LEFT JOIN %s e ON e.id = r.dimension_id
+            WHERE r.dimension = ? AND r.dispatch_day >= ? AND r.dispatch_day < ? AND r.transactions <> 0%s
+            ORDER BY r.dispatch_day, r.dimension_id
+            """;
+
+    private static final String TOTALS_SQL = """
+            SELECT r.dimension_id, e.name, SUM(r.transactions) AS transactions, SUM(r.completed) AS completed,
+                   SUM(r.duration_seconds) AS duration_seconds, SUM(r.distance_km) AS distance_km
+            FROM transaction_daily_rollups r
+            LEFT JOIN %s e ON e.id = r.dimension_id
+            WHERE r.dimension = ? AND r.dispatch_day >= ? AND r.dispatch_day < ?%s
+            GROUP BY r.dimension_id, e.name
+            HAVING SUM(r.transactions) <> 0
+            ORDER BY r.dimension_id
+            """;
+
+    // Diferença entre distance_km gravado e o recalculado por TransactionRepository.recalculateDistancesForLocation
+    private static final String DISTANCE_CHANGES_SQL = """
+            SELECT c.origin_location, c.vehicle, c.driver, CAST(c.dispatch_time AS DATE) AS dispatch_day,
+                   SUM(COALESCE(c.recalculated_km, 0) - COALESCE(c.distance_km, 0)) AS distance_km
+            FROM (SELECT origin_location, vehicle, driver, dispatch_time, distance_km,
+                         %s AS recalculated_km
+                  FROM transactions
+                  WHERE (origin_location = ? OR destiny_location = ?) AND dispatch_time IS NOT NULL) c
+            GROUP BY c.origin_location, c.vehicle, c.driver, CAST(c.dispatch_time AS DATE)
+            """.formatted(TransactionRepository.DISTANCE_KM_SQL);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void apply(List<Delta> deltas) {
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setString(1, delta.dimension().name());
+            ps.setLong(2, delta.dimensionId());
+            ps.setObject(3, delta.day());
+            ps.setLong(4, delta.transactions());
+            ps.setLong(5, delta.completed());
+            ps.setLong(6, delta.durationSeconds());
+            ps.setDouble(7, delta.distanceKm());
+        });
+    }
+
+    // Deve rodar dentro de uma transação; to é exclusivo
+    public int rebuild(LocalDate from, LocalDate to) {
+        jdbcTemplate.execute(LOCK_SQL);
+        jdbcTemplate.update(DELETE_RANGE_SQL, from, to);
+        int rows = 0;
+        for (RollupDimension dimension : RollupDimension.values()) {
+            rows += jdbcTemplate.update(REBUILD_SQL.formatted(dimension.name(), sourceColumn(dimension)),
+                    from.atStartOfDay(), to.atStartOfDay());
+        }
+        return rows;
+    }
+
+    // Deve rodar antes do UPDATE, na mesma transação
+    public List<DistanceChange> findDistanceChangesForLocation(Long locationId) {
+        return jdbcTemplate.query(DISTANCE_CHANGES_SQL,
+                (rs, rowNum) -> new DistanceChange(
+                        rs.getLong("origin_location"),
+                        rs.getLong("vehicle"),
+                        rs.getLong("driver"),
+                        rs.getObject("dispatch_day", LocalDate.class),
+                        rs.getDouble("distance_km")
+                ), locationId, locationId);
+    }
+
+    public boolean isBackfilled() {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM transaction_rollup_state WHERE id = 1").isEmpty();
+    }
+
+    public void markBackfilled(LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO transaction_rollup_state (id, backfilled_at) VALUES (1, ?)", at);
+    }
+
+    public LocalDate findFirstDispatchDay() {
+        return jdbcTemplate.queryForObject("SELECT CAST(MIN(dispatch_time) AS DATE) FROM transactions",
+                LocalDate.class);
+    }
+
+    public LocalDate findLastDispatchDay() {
+        return jdbcTemplate.queryForObject("SELECT CAST(MAX(dispatch_time) AS DATE) FROM transactions",
+                LocalDate.class);
+    }
+
+    public List<RollupReportRow> findDaily(RollupDimension dimension, LocalDate from, LocalDate to, Long id) {
+        return jdbcTemplate.query(DAILY_SQL.formatted(dimension.path(), id != null ? " AND r.dimension_id = ?" : ""),
+                (rs, rowNum) -> RollupReportRow.of(
+                        rs.getLong("dimension_id"),
+                        rs.getString("name"),
+                        rs.getObject("dispatch_day", LocalDate.class),
+                        rs.getLong("transactions"),
+                        rs.getLong("completed"),
+                        rs.getLong("duration_seconds"),
+                        rs.getDouble("distance_km")
+                ), arguments(dimension, from, to, id));
+    }
+
+    public List<RollupReportRow> findTotals(RollupDimension dimension, LocalDate from, LocalDate to, Long id) {
+        return jdbcTemplate.query(TOTALS_SQL.formatted(dimension.path(), id != null ? " AND r.dimension_id = ?" : ""),
+                (rs, rowNum) -> RollupReportRow.of(
+                        rs.getLong("dimension_id"),
+                        rs.getString("name"),
+                        null,
+                        rs.getLong("transactions"),
+                        rs.getLong("completed"),
+                        rs.getLong("duration_seconds"),
+                        rs.getDouble("distance_km")
+                ), arguments(dimension, from, to, id));
+    }
+
+    private static Object[] arguments(RollupDimension dimension, LocalDate from, LocalDate to, Long id) {
+        List<Object> arguments = new ArrayList<>(List.of(dimension.name(), from, to));
+        if (id != null) {
+            arguments.add(id);
+        }
+        return arguments.toArray();
+    }
+
+    private static String sourceColumn(RollupDimension dimension) {
+        return switch (dimension) {
+            case LOCATION -> "origin_location";
+            case VEHICLE -> "vehicle";
+            case DRIVER -> "driver";
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package iot.logi.api.repository;
+
+import iot.logi.api.dtos.ReadingDto;
+import iot.logi.api.geo.TrackPoint;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// vehicle_positions é particionada por mês no Postgres (schema-postgresql.sql), por isso fica fora do JPA
+@Repository
+public class VehiclePositionRepository {
+
+    public record OngoingTrip(Long transactionId, Long vehicleId, Long destinyLocationId, LocalDateTime dispatchTime,
+                              Double travelledKm, LocalDateTime travelledUntil) {
+
+        public boolean covers(ReadingDto reading) {
+            return !reading.getTimestamp().isBefore(dispatchTime);
+        }
+    }
+
+    private static final String ONGOING_TRIPS_SQL = """
+            SELECT v.device, t.id, v.id AS vehicle_id, t.destiny_location, t.dispatch_time, t.travelled_km,
+                   t.travelled_until
+            FROM vehicles v
+            JOIN transactions t ON t.vehicle = v.id AND t.dispatch_time IS NOT NULL AND t.arrival_time IS NULL
+            WHERE v.device IN (:deviceIds)
+            """;
+
+    private static final String INSERT_POSITION_SQL = """
+            INSERT INTO vehicle_positions (transaction_id, vehicle_id, recorded_at, latitude, longitude)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String TRACK_SQL = """
+            SELECT recorded_at, latitude, longitude
+            FROM vehicle_positions
+            WHERE transaction_id = ? AND recorded_at BETWEEN ? AND ?
+            ORDER BY recorded_at
+            """;
+
+    private static final String TRACK_SINCE_SQL = """
+            SELECT recorded_at, latitude, longitude
+            FROM vehicle_positions
+            WHERE transaction_id = ? AND recorded_at >= ?
+            ORDER BY recorded_at
+            """;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final RowMapper<TrackPoint> TRACK_POINT_MAPPER = (rs, rowNum) -> new TrackPoint(
+            rs.getObject("recorded_at", LocalDateTime.class),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public VehiclePositionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // Transação em andamento do veículo de cada dispositivo; ux_transactions_ongoing_vehicle garante no máximo uma
+    public Map<Long, OngoingTrip> findOngoingTripsByDevices(Collection<Long> deviceIds) {
+        Map<Long, OngoingTrip> trips = new HashMap<>();
+        if (deviceIds.isEmpty()) {
+            return trips;
+        }
+
+        namedParameterJdbcTemplate.query(ONGOING_TRIPS_SQL, Map.of("deviceIds", deviceIds), rs -> {
+            trips.put(rs.getLong("device"), new OngoingTrip(
+                    rs.getLong("id"),
+                    rs.getLong("vehicle_id"),
+                    rs.getLong("destiny_location"),
+                    rs.getObject("dispatch_time", LocalDateTime.class),
+                    rs.getObject("travelled_km", Double.class),
+                    rs.getObject("travelled_until", LocalDateTime.class)
+            ));
+        });
+        return trips;
+    }
+
+    // Só entram leituras de dispositivos em viagem, a partir do despacho
+    public void append(List<ReadingDto> readings, Map<Long, OngoingTrip> trips, int batchSize) {
+        List<ReadingDto> positions = readings.stream()
+                .filter(reading -> {
+                    OngoingTrip trip = trips.get(reading.getDeviceId());
+                    return trip != null && trip.covers(reading);
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_POSITION_SQL, positions, batchSize, (ps, reading) -> {
+            OngoingTrip trip = trips.get(reading.getDeviceId());
+            ps.setLong(1, trip.transactionId());
+            ps.setLong(2, trip.vehicleId());
+            ps.setObject(3, reading.getTimestamp());
+            ps.setDouble(4, reading.getLatitude());
+            ps.setDouble(5, reading.getLongitude());
+        });
+    }
+
+    // O intervalo da viagem permite ao Postgres descartar as partições fora dele
+    public List<TrackPoint> findTrack(Long transactionId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(TRACK_SQL, TRACK_POINT_MAPPER, transactionId, from, to);
+    }
+
+    public List<TrackPoint> findTrackSince(Long transactionId, LocalDateTime from) {
+        return jdbcTemplate.query(TRACK_SINCE_SQL, TRACK_POINT_MAPPER, transactionId, from);
+    }
+
+    public boolean partitionExists(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                partitionName(month)));
+    }
+
+    // Precisa rodar numa transação: o Postgres recusa a partição enquanto a default tiver linhas do mesmo intervalo,
+    // então elas são movidas para a tabela nova antes do ATTACH, com a default bloqueada contra novas inserções
+    public void createMonthlyPartition(YearMonth month) {
+        String partition = partitionName(month);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        jdbcTemplate.execute("LOCK TABLE vehicle_positions_default IN EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE vehicle_positions INCLUDING DEFAULTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM vehicle_positions_default"
+                + " WHERE recorded_at >= ? AND recorded_at < ? RETURNING *)"
+                + " INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE vehicle_positions ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from.toLocalDate() + "') TO ('" + to.toLocalDate() + "')");
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "vehicle_positions_" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -1,9 +1,41 @@
 package iot.logi.api.repository;
 
+import iot.logi.api.dtos.VehicleView;
 import iot.logi.api.models.Vehicle;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+
+    String VEHICLE_VIEW_JPQL = """
+            SELECT new iot.logi.api.dtos.VehicleView(v.id, v.name, v.plate, d.id, d.name)
+            FROM Vehicle v JOIN v.device d
+            """;
+
+    @Query(value = VEHICLE_VIEW_JPQL, countQuery = "SELECT COUNT(v) FROM Vehicle v")
+    Page<VehicleView> findAllViews(Pageable pageable);
+
+    @Cacheable(cacheNames = "vehicles", unless = "#result == null")
+    @Query(VEHICLE_VIEW_JPQL + "WHERE v.id = :id")
+    Optional<VehicleView> findViewById(@Param("id") Long id);
+
+    @Query(VEHICLE_VIEW_JPQL + "ORDER BY v.name, v.id")
+    List<VehicleView> findFirstKeysetPage(Pageable pageable);
+
+    @Query(VEHICLE_VIEW_JPQL + "WHERE (v.name, v.id) > (:name, :id) ORDER BY v.name, v.id")
+    List<VehicleView> findKeysetPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT v.id FROM Vehicle v WHERE v.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
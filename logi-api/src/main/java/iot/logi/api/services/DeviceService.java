@@ -1,49 +1,117 @@
 package iot.logi.api.services;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
 import iot.logi.api.dtos.DeviceDto;
+import iot.logi.api.dtos.DeviceView;
+import iot.logi.api.dtos.KeysetCursor;
+import iot.logi.api.dtos.LocationView;
+import iot.logi.api.dtos.NearbyDeviceDto;
+import iot.logi.api.dtos.SummaryView;
 import iot.logi.api.exceptions.NotFoundException;
 import iot.logi.api.exceptions.SaveEntityException;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.geo.LocationIndex;
+import iot.logi.api.geo.NearbyPoint;
+import iot.logi.api.geo.NearbyQuery;
+import iot.logi.api.live.DeviceUpdate;
 import iot.logi.api.models.Device;
-import iot.logi.api.models.Location;
+import iot.logi.api.models.enums.DeviceType;
+import iot.logi.api.repository.BatchInserter;
 import iot.logi.api.repository.DeviceRepository;
 import iot.logi.api.repository.LocationRepository;
 import org.springframework.beans.BeanUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class DeviceService {
+    private static final int LOCATION_IDS_PER_QUERY = 1000;
+
     private final DeviceRepository deviceRepository;
     private final LocationRepository locationRepository;
+    private final DeviceTrackingWriteBehind deviceTrackingWriteBehind;
+    private final LocationIndex locationIndex;
+    private final BatchInserter batchInserter;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DeviceService(DeviceRepository deviceRepository, LocationRepository locationRepository) {
+    public DeviceService(DeviceRepository deviceRepository, LocationRepository locationRepository,
+                         DeviceTrackingWriteBehind deviceTrackingWriteBehind, LocationIndex locationIndex,
+                         BatchInserter batchInserter, ApplicationEventPublisher eventPublisher) {
         this.deviceRepository = deviceRepository;
         this.locationRepository = locationRepository;
+        this.deviceTrackingWriteBehind = deviceTrackingWriteBehind;
+        this.locationIndex = locationIndex;
+        this.batchInserter = batchInserter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
-    public Device createDevice(DeviceDto deviceDto) {
+    public DeviceView createDevice(DeviceDto deviceDto) {
         Device device = Device.builder()
                 .name(deviceDto.getName())
                 .type(deviceDto.getType())
                 .status(deviceDto.getStatus())
                 .build();
 
+        SummaryView location = null;
         if (deviceDto.getLocationId() != null) {
-            Location location = locationRepository.findById(deviceDto.getLocationId())
-                    .orElseThrow(() -> new IllegalArgumentException("Localização não encontrada"));
-            device.setLocation(location);
+            location = findLocationById(deviceDto.getLocationId()).summary();
+            device.setLocation(locationRepository.getReferenceById(location.id()));
         }
 
         try {
-            return deviceRepository.save(device);
+            return DeviceView.of(deviceRepository.save(device), location);
         } catch (Exception e) {
             throw new SaveEntityException("Erro ao salvar dispositivo: " + e.getMessage());
         }
     }
 
+    @Transactional
+    public BatchResult createDevices(List<DeviceDto> deviceDtos) {
+        batchInserter.checkSize(deviceDtos);
+        Set<Long> requestedLocationIds = BatchInserter.idsOf(deviceDtos, DeviceDto::getLocationId);
+        Set<Long> locationIds = requestedLocationIds.isEmpty()
+                ? Set.of()
+                : locationRepository.findExistingIds(requestedLocationIds);
+
+        try {
+            return batchInserter.insert(deviceDtos, deviceDto -> {
+                Device device = Device.builder()
+                        .name(deviceDto.getName())
+                        .type(deviceDto.getType())
+                        .status(deviceDto.getStatus())
+                        .build();
+
+                if (deviceDto.getLocationId() != null) {
+                    if (!locationIds.contains(deviceDto.getLocationId())) {
+                        throw new ValidationException(
+                                "Localização não encontrada com ID: " + deviceDto.getLocationId());
+                    }
+                    device.setLocation(locationRepository.getReferenceById(deviceDto.getLocationId()));
+                }
+                return device;
+            }, Device::getId);
+        } catch (DataAccessException e) {
+            throw new SaveEntityException("Erro ao salvar dispositivos: " + e.getMessage());
+        }
+    }
+
     @Transactional(readOnly = true)
     public Device findDeviceById(Long id) {
         return deviceRepository.findById(id)
@@ -51,30 +119,114 @@ public class DeviceService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Device> findAllDevices(Pageable pageable) {
-        return deviceRepository.findAll(pageable);
+    public DeviceView findDeviceViewById(Long id) {
+        return deviceRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Dispositivo não encontrado com ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DeviceView> findAllDevices(Pageable pageable) {
+        return deviceRepository.findAllViews(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DeviceView> findDevicesAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = CursorPage.fetchLimit(size);
+        List<DeviceView> rows = cursor == null
+                ? deviceRepository.findFirstKeysetPage(limit)
+                : deviceRepository.findKeysetPageAfter(cursor.name(), cursor.id(), limit);
+        return CursorPage.of(rows, size, device -> new KeysetCursor(device.id(), device.name()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NearbyDeviceDto> findNearbyDevices(NearbyQuery query, DeviceType type) {
+        if (query.radiusKm() != null) {
+            List<NearbyPoint> locations = locationIndex.withinRadius(
+                    query.latitude(), query.longitude(), query.radiusKm(), null);
+            return findDevicesAt(locations, type, query.limit());
+        }
+
+        // Nem toda localização tem dispositivos: amplia a busca até completar k dispositivos
+        int locationCount = query.k();
+        while (true) {
+            List<NearbyPoint> locations = locationIndex.nearest(
+                    query.latitude(), query.longitude(), locationCount, null);
+            List<NearbyDeviceDto> devices = findDevicesAt(locations, type, query.k());
+            if (devices.size() >= query.k() || locations.size() < locationCount) {
+                return devices;
+            }
+            locationCount *= 2;
+        }
+    }
+
+    private List<NearbyDeviceDto> findDevicesAt(List<NearbyPoint> locations, DeviceType type, int limit) {
+        Map<Long, NearbyPoint> locationsById = locations.stream()
+                .collect(Collectors.toMap(nearby -> nearby.point().id(), Function.identity()));
+        List<Long> locationIds = new ArrayList<>(locationsById.keySet());
+
+        List<NearbyDeviceDto> devices = new ArrayList<>();
+        for (int from = 0; from < locationIds.size(); from += LOCATION_IDS_PER_QUERY) {
+            List<Long> chunk = locationIds.subList(from, Math.min(from + LOCATION_IDS_PER_QUERY, locationIds.size()));
+            for (Device device : deviceRepository.findAllByLocationIds(chunk)) {
+                if (type != null && device.getType() != type) {
+                    continue;
+                }
+
+                NearbyPoint location = locationsById.get(device.getLocation().getId());
+                devices.add(new NearbyDeviceDto(
+                        device.getId(),
+                        device.getName(),
+                        device.getType(),
+                        device.getStatus(),
+                        device.getLastTracking(),
+                        location.point().id(),
+                        location.point().name(),
+                        location.distanceKm()
+                ));
+            }
+        }
+
+        return devices.stream()
+                .sorted(Comparator.comparingDouble(NearbyDeviceDto::distanceKm))
+                .limit(limit)
+                .toList();
     }
 
     @Transactional
-    public Device updateDevice(Long id, DeviceDto deviceDto) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "devices", key = "#id"),
+            @CacheEvict(cacheNames = "vehicles", allEntries = true)
+    })
+    public DeviceView updateDevice(Long id, DeviceDto deviceDto) {
         Device existingDevice = findDeviceById(id);
+        SummaryView location = DeviceView.from(existingDevice).location();
 
         BeanUtils.copyProperties(deviceDto, existingDevice, "id");
 
         if (deviceDto.getLocationId() != null) {
-            Location location = locationRepository.findById(deviceDto.getLocationId())
-                    .orElseThrow(() -> new IllegalArgumentException("Localização não encontrada"));
-            existingDevice.setLocation(location);
+            location = findLocationById(deviceDto.getLocationId()).summary();
+            existingDevice.setLocation(locationRepository.getReferenceById(location.id()));
         }
 
         try {
-            return deviceRepository.save(existingDevice);
+            Device saved = deviceRepository.save(existingDevice);
+            eventPublisher.publishEvent(DeviceUpdate.of(saved));
+            return DeviceView.of(saved, location);
         } catch (Exception e) {
             throw new SaveEntityException("Erro ao atualizar dispositivo: " + e.getMessage());
         }
     }
 
+    public void recordHeartbeat(Long id, LocalDateTime timestamp) {
+        deviceTrackingWriteBehind.record(id, timestamp != null ? timestamp : LocalDateTime.now());
+    }
+
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "devices", key = "#id"),
+            @CacheEvict(cacheNames = "vehicles", allEntries = true)
+    })
     public void deleteDevice(Long id) {
         Device device = findDeviceById(id);
 
@@ -84,4 +236,9 @@ public class DeviceService {
             throw new SaveEntityException("Erro ao deletar dispositivo: " + e.getMessage());
         }
     }
+
+    private LocationView findLocationById(Long id) {
+        return locationRepository.findViewById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Localização não encontrada"));
+    }
 }
@@ -0,0 +1,108 @@
+package iot.logi.api.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import iot.logi.api.dtos.DeviceView;
+import iot.logi.api.live.DeviceUpdate;
+import iot.logi.api.live.DeviceUpdates;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Mantém apenas o último lastTracking de cada dispositivo e grava tudo de uma vez a cada intervalo
+@Component
+public class DeviceTrackingWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceTrackingWriteBehind.class);
+
+    private static final String UPDATE_LAST_TRACKING_SQL = """
+            UPDATE devices SET last_tracking = ?
+            WHERE id = ? AND (last_tracking IS NULL OR last_tracking < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public DeviceTrackingWriteBehind(JdbcTemplate jdbcTemplate, CacheManager cacheManager,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void record(Long deviceId, LocalDateTime timestamp) {
+        pending.merge(deviceId, timestamp, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    public int getPendingDevices() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${logi.tracking.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            List<Object[]> updates = new ArrayList<>(pending.size());
+            for (Long deviceId : pending.keySet()) {
+                LocalDateTime timestamp = pending.remove(deviceId);
+                if (timestamp != null) {
+                    updates.add(new Object[]{timestamp, deviceId, timestamp});
+                }
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_LAST_TRACKING_SQL, updates);
+                refreshCachedDevices(updates);
+                eventPublisher.publishEvent(new DeviceUpdates(updates.stream()
+                        .map(update -> DeviceUpdate.tracking((Long) update[1], (LocalDateTime) update[0]))
+                        .toList()));
+            } catch (DataAccessException e) {
+                log.error("Error flushing last tracking of {} devices", updates.size(), e);
+                updates.forEach(update -> record((Long) update[1], (LocalDateTime) update[0]));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // O DeviceView em cache carrega lastTracking: atualiza só esse campo em vez de despejar os dispositivos ativos a
+    // cada flush. computeIfPresent é atômico com o evict do DeviceService, então não recoloca uma entrada antiga
+    private void refreshCachedDevices(List<Object[]> updates) {
+        if (!(cacheManager.getCache("devices") instanceof CaffeineCache devices)) {
+            return;
+        }
+
+        Cache<Object, Object> cache = devices.getNativeCache();
+        for (Object[] update : updates) {
+            LocalDateTime timestamp = (LocalDateTime) update[0];
+            cache.asMap().computeIfPresent(update[1], (id, cached) -> cached instanceof DeviceView view
+                    && (view.lastTracking() == null || view.lastTracking().isBefore(timestamp))
+                    ? view.withLastTracking(timestamp)
+                    : cached);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,82 @@
+package iot.logi.api.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import iot.logi.api.dtos.DistanceMatrixDto;
+import iot.logi.api.exceptions.NotFoundException;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.geo.DistanceMatrix;
+import iot.logi.api.geo.LocationIndex;
+import iot.logi.api.geo.LocationPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class DistanceMatrixService {
+
+    private static final int CELLS_PER_BLOCK = 1 << 20;
+
+    private final LocationIndex locationIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${logi.distance-matrix.max-cells:25000000}")
+    private long maxCells;
+
+    public DistanceMatrixService(LocationIndex locationIndex, ObjectMapper objectMapper) {
+        this.locationIndex = locationIndex;
+        this.objectMapper = objectMapper;
+    }
+
+    public DistanceMatrix prepare(DistanceMatrixDto matrixDto) {
+        List<Long> originIds = matrixDto.getOriginIds();
+        List<Long> destinyIds = destinyIdsOf(matrixDto);
+        if ((long) originIds.size() * destinyIds.size() > maxCells) {
+            throw new ValidationException("Matriz de distâncias excede o limite de " + maxCells + " células");
+        }
+
+        return new DistanceMatrix(findPoints(originIds), findPoints(destinyIds));
+    }
+
+    // Calcula e escreve a matriz em blocos de linhas para não manter a matriz inteira em memória
+    public void write(DistanceMatrixDto matrixDto, DistanceMatrix matrix, OutputStream outputStream) throws IOException {
+        int columns = matrix.columns();
+        int rowsPerBlock = Math.max(1, CELLS_PER_BLOCK / Math.max(1, columns));
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeObjectField("originIds", matrixDto.getOriginIds());
+            generator.writeObjectField("destinyIds", destinyIdsOf(matrixDto));
+            generator.writeArrayFieldStart("distancesKm");
+            for (int fromRow = 0; fromRow < matrix.rows(); fromRow += rowsPerBlock) {
+                int toRow = Math.min(fromRow + rowsPerBlock, matrix.rows());
+                float[] block = matrix.compute(ForkJoinPool.commonPool(), fromRow, toRow);
+                for (int row = 0; row < toRow - fromRow; row++) {
+                    generator.writeStartArray();
+                    for (int column = 0; column < columns; column++) {
+                        generator.writeNumber(block[row * columns + column]);
+                    }
+                    generator.writeEndArray();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private List<Long> destinyIdsOf(DistanceMatrixDto matrixDto) {
+        List<Long> destinyIds = matrixDto.getDestinyIds();
+        return destinyIds == null || destinyIds.isEmpty() ? matrixDto.getOriginIds() : destinyIds;
+    }
+
+    private List<LocationPoint> findPoints(List<Long> ids) {
+        return ids.stream()
+                .map(id -> locationIndex.get(id)
+                        .orElseThrow(() -> new NotFoundException("Localização não encontrada com ID: " + id)))
+                .toList();
+    }
+}
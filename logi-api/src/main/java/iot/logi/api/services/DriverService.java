@@ -1,17 +1,23 @@
 package iot.logi.api.services;
 
+import iot.logi.api.dtos.CursorPage;
 import iot.logi.api.dtos.DriverDto;
+import iot.logi.api.dtos.DriverView;
+import iot.logi.api.dtos.KeysetCursor;
 import iot.logi.api.exceptions.NotFoundException;
 import iot.logi.api.exceptions.SaveEntityException;
 import iot.logi.api.models.Driver;
 import iot.logi.api.repository.DriverRepository;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class DriverService {
 
@@ -42,11 +48,28 @@ public class DriverService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Driver> findAllDrivers(Pageable pageable) {
-        return driverRepository.findAll(pageable);
+    public DriverView findDriverViewById(Long id) {
+        return driverRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Motorista não encontrado com ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DriverView> findAllDrivers(Pageable pageable) {
+        return driverRepository.findAllViews(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DriverView> findDriversAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = CursorPage.fetchLimit(size);
+        List<DriverView> rows = cursor == null
+                ? driverRepository.findFirstKeysetPage(limit)
+                : driverRepository.findKeysetPageAfter(cursor.name(), cursor.id(), limit);
+        return CursorPage.of(rows, size, driver -> new KeysetCursor(driver.id(), driver.name()));
     }
 
     @Transactional
+    @CacheEvict(cacheNames = "drivers", key = "#id")
     public Driver updateDriver(Long id, DriverDto driverDto) {
         Driver driver = findDriverById(id);
         BeanUtils.copyProperties(driverDto, driver, "id");
@@ -59,6 +82,7 @@ public class DriverService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = "drivers", key = "#id")
     public void deleteDriver(Long id) {
         Driver driver = findDriverById(id);
 
@@ -0,0 +1,203 @@
+package iot.logi.api.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import iot.logi.api.dtos.GeofenceEvent;
+import iot.logi.api.dtos.ReadingDto;
+import iot.logi.api.geo.GeoUtils;
+import iot.logi.api.geo.LocationIndex;
+import iot.logi.api.geo.LocationPoint;
+import iot.logi.api.geo.NearbyPoint;
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.outbox.TransactionOutbox;
+import iot.logi.api.repository.TransactionRepository;
+import iot.logi.api.repository.VehiclePositionRepository.OngoingTrip;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Avalia cada posição das transações em andamento contra o destino da viagem, consultando o {@link LocationIndex}
+ * em memória. A chegada é detectada quando o veículo permanece no raio do destino por {@code dwell-seconds} e é
+ * gravada com um único UPDATE condicional; {@code arrivalTime} fica com o instante em que o veículo entrou no raio.
+ * <p>
+ * Com {@code logi.geofence.watch-type} preenchido, as entradas e saídas dos locais desse tipo são publicadas como
+ * {@link GeofenceEvent}. Chamado só pela thread de escrita da ingestão, por isso o estado não é sincronizado.
+ */
+@Component
+public class GeofenceEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(GeofenceEngine.class);
+
+    private static final String CLOSE_ON_ARRIVAL_SQL = """
+            UPDATE transactions SET arrival_time = ?
+            WHERE id = ? AND arrival_time IS NULL AND dispatch_time <= ?
+            """;
+
+    private final LocationIndex locationIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRepository transactionRepository;
+    private final TransactionOutbox transactionOutbox;
+    private final TransactionRollups transactionRollups;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter arrivals;
+    private final Counter entries;
+    private final Counter exits;
+    private final Map<Long, VehicleState> states = new HashMap<>();
+    private final double arrivalRadiusKm;
+    private final Duration dwell;
+    private final LocationType watchType;
+    private final double watchRadiusKm;
+
+    public GeofenceEngine(LocationIndex locationIndex, JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate, TransactionRepository transactionRepository,
+                          TransactionOutbox transactionOutbox, TransactionRollups transactionRollups,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry,
+                          @Value("${logi.geofence.arrival-radius-m:150}") double arrivalRadiusMeters,
+                          @Value("${logi.geofence.dwell-seconds:60}") long dwellSeconds,
+                          @Value("${logi.geofence.watch-type:}") String watchType,
+                          @Value("${logi.geofence.watch-radius-m:200}") double watchRadiusMeters) {
+        this.locationIndex = locationIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionRepository = transactionRepository;
+        this.transactionOutbox = transactionOutbox;
+        this.transactionRollups = transactionRollups;
+        this.eventPublisher = eventPublisher;
+        this.arrivals = meterRegistry.counter("logi.geofence.arrivals");
+        this.entries = meterRegistry.counter("logi.geofence.transitions", "kind", "entered");
+        this.exits = meterRegistry.counter("logi.geofence.transitions", "kind", "exited");
+        this.arrivalRadiusKm = arrivalRadiusMeters / 1000;
+        this.dwell = Duration.ofSeconds(dwellSeconds);
+        this.watchType = watchType.isBlank() ? null : LocationType.valueOf(watchType.trim().toUpperCase(Locale.ROOT));
+        this.watchRadiusKm = watchRadiusMeters / 1000;
+    }
+
+    public void evaluate(List<ReadingDto> readings, Map<Long, OngoingTrip> ongoingTrips) {
+        if (ongoingTrips.isEmpty()) {
+            return;
+        }
+
+        List<ReadingDto> ordered = readings.stream()
+                .filter(reading -> {
+                    OngoingTrip trip = ongoingTrips.get(reading.getDeviceId());
+                    return trip != null && trip.covers(reading);
+                })
+                .sorted(Comparator.comparing(ReadingDto::getTimestamp))
+                .toList();
+        for (ReadingDto reading : ordered) {
+            OngoingTrip trip = ongoingTrips.get(reading.getDeviceId());
+            VehicleState state = states.get(trip.vehicleId());
+            if (state == null || !state.transactionId.equals(trip.transactionId())) {
+                state = new VehicleState(trip.transactionId());
+                states.put(trip.vehicleId(), state);
+            }
+            if (state.arrived || !reading.getTimestamp().isAfter(state.lastFix)) {
+                continue;
+            }
+
+            state.lastFix = reading.getTimestamp();
+            checkArrival(trip, state, reading);
+            if (watchType != null) {
+                checkWatched(trip, state, reading);
+            }
+        }
+    }
+
+    private void checkArrival(OngoingTrip trip, VehicleState state, ReadingDto reading) {
+        Optional<LocationPoint> destiny = locationIndex.get(trip.destinyLocationId());
+        if (destiny.isEmpty()) {
+            return;
+        }
+
+        double distanceKm = GeoUtils.haversineKm(reading.getLatitude(), reading.getLongitude(),
+                destiny.get().latitude(), destiny.get().longitude());
+        if (distanceKm > arrivalRadiusKm) {
+            state.enteredDestinyAt = null;
+            return;
+        }
+
+        if (state.enteredDestinyAt == null) {
+            state.enteredDestinyAt = reading.getTimestamp();
+        }
+        if (Duration.between(state.enteredDestinyAt, reading.getTimestamp()).compareTo(dwell) >= 0) {
+            state.arrived = close(trip.transactionId(), state.enteredDestinyAt);
+        }
+    }
+
+    // Só a transição nulo -> preenchido grava: uma chegada já registrada por PUT não é sobrescrita
+    private boolean close(Long transactionId, LocalDateTime arrivalTime) {
+        try {
+            Boolean closed = transactionTemplate.execute(status -> {
+                int updated = jdbcTemplate.update(CLOSE_ON_ARRIVAL_SQL, arrivalTime, transactionId, arrivalTime);
+                if (updated == 0) {
+                    return false;
+                }
+
+                Transaction transaction = transactionRepository.findById(transactionId).orElseThrow();
+                TransactionRollups.Snapshot after = TransactionRollups.Snapshot.of(transaction);
+                transactionOutbox.updated(transaction, transaction.getDispatchTime(), null);
+                transactionRollups.updated(new TransactionRollups.Snapshot(after.originLocationId(),
+                        after.vehicleId(), after.driverId(), after.dispatchTime(), null, after.distanceKm()),
+                        transaction);
+                return true;
+            });
+            if (Boolean.TRUE.equals(closed)) {
+                arrivals.increment();
+                log.info("Transaction {} arrived at {}", transactionId, arrivalTime);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Error closing transaction {} on arrival", transactionId, e);
+            return false;
+        }
+    }
+
+    private void checkWatched(OngoingTrip trip, VehicleState state, ReadingDto reading) {
+        List<NearbyPoint> nearby = locationIndex.withinRadius(reading.getLatitude(), reading.getLongitude(),
+                watchRadiusKm, watchType);
+        LocationPoint inside = nearby.isEmpty() ? null : nearby.getFirst().point();
+        if (state.watched != null && (inside == null || !state.watched.id().equals(inside.id()))) {
+            exits.increment();
+            eventPublisher.publishEvent(new GeofenceEvent(GeofenceEvent.Kind.EXITED, trip.vehicleId(),
+                    trip.transactionId(), state.watched.id(), state.watched.name(), reading.getTimestamp()));
+            state.watched = null;
+        }
+        if (inside != null && state.watched == null) {
+            entries.increment();
+            eventPublisher.publishEvent(new GeofenceEvent(GeofenceEvent.Kind.ENTERED, trip.vehicleId(),
+                    trip.transactionId(), inside.id(), inside.name(), reading.getTimestamp()));
+            state.watched = inside;
+        }
+    }
+
+    private static final class VehicleState {
+
+        private final Long transactionId;
+        private LocalDateTime lastFix = LocalDateTime.MIN;
+        private LocalDateTime enteredDestinyAt;
+        private LocationPoint watched;
+        private boolean arrived;
+
+        VehicleState(Long transactionId) {
+            this.transactionId = transactionId;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package iot.logi.api.services;
+
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Fila durável para os grupos de leituras que não puderam ser gravados (ReadingDeadLetter)
+@Configuration
+public class IngestConfig {
+
+    @Bean
+    public Queue readingsDeadLetterQueue(
+            @Value("${logi.ingest.dead-letter-queue:logi_readings_dead_letter}") String queue) {
+        return QueueBuilder.durable(queue).build();
+    }
+}
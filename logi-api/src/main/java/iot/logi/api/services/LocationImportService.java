@@ -0,0 +1,194 @@
+package iot.logi.api.services;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import iot.logi.api.dtos.ImportResult;
+import iot.logi.api.dtos.LocationDto;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.geo.LocationIndex;
+import iot.logi.api.geo.LocationPoint;
+import iot.logi.api.geo.SpatialGrid;
+import iot.logi.api.models.Location;
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.repository.LocationRepository;
+import iot.logi.api.validators.ObjectsValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Lê o arquivo linha a linha e grava em blocos, cada bloco na sua própria transação
+@Service
+public class LocationImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final LocationService locationService;
+    private final LocationRepository locationRepository;
+    private final LocationIndex locationIndex;
+    private final ObjectMapper objectMapper;
+    private final ObjectsValidator<LocationDto> locationValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${logi.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public LocationImportService(LocationService locationService, LocationRepository locationRepository,
+                                 LocationIndex locationIndex, ObjectMapper objectMapper,
+                                 ObjectsValidator<LocationDto> locationValidator,
+                                 PlatformTransactionManager transactionManager) {
+        this.locationService = locationService;
+        this.locationRepository = locationRepository;
+        this.locationIndex = locationIndex;
+        this.objectMapper = objectMapper;
+        this.locationValidator = locationValidator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportResult importCsv(InputStream body) {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class)
+                .with(schema)
+                .readValues(body)) {
+            return importRows(rows);
+        } catch (IOException e) {
+            throw new ValidationException("Arquivo CSV inválido: " + e.getMessage(), e);
+        }
+    }
+
+    public ImportResult importNdjson(InputStream body) {
+        try (MappingIterator<Map<String, Object>> rows = objectMapper.readerForMapOf(Object.class).readValues(body)) {
+            return importRows(rows);
+        } catch (IOException e) {
+            throw new ValidationException("Corpo NDJSON inválido: " + e.getMessage(), e);
+        }
+    }
+
+    private ImportResult importRows(MappingIterator<? extends Map<String, ?>> rows) {
+        SpatialGrid imported = new SpatialGrid(LocationService.PROXIMITY_TOLERANCE);
+        List<Location> chunk = new ArrayList<>(chunkSize);
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        int accepted = 0;
+        int duplicates = 0;
+        int invalid = 0;
+        long row = 0;
+
+        try {
+            while (rows.hasNextValue()) {
+                Map<String, ?> values = rows.nextValue();
+                row++;
+
+                LocationDto locationDto;
+                try {
+                    locationDto = toLocationDto(values);
+                } catch (ValidationException e) {
+                    invalid++;
+                    report(errors, row, e.getMessage());
+                    continue;
+                }
+
+                double latitude = locationDto.getLatitude();
+                double longitude = locationDto.getLongitude();
+                if (imported.existsNear(latitude, longitude, LocationService.PROXIMITY_TOLERANCE)
+                        || locationService.existsNearbyLocation(latitude, longitude)) {
+                    duplicates++;
+                    report(errors, row, LocationService.NEARBY_LOCATION_MESSAGE);
+                    continue;
+                }
+
+                Location location = locationService.toLocation(locationDto);
+                imported.add(new LocationPoint(null, location.getName(), location.getType(), latitude, longitude));
+                chunk.add(location);
+                if (chunk.size() == chunkSize) {
+                    accepted += saveChunk(chunk);
+                }
+            }
+        } catch (IOException | RuntimeJsonMappingException e) {
+            throw new ValidationException("Erro de leitura após a linha " + row + " (" + accepted
+                    + " localizações já importadas): " + e.getMessage(), e);
+        }
+        accepted += saveChunk(chunk);
+
+        log.info("Imported {} locations ({} duplicates, {} invalid)", accepted, duplicates, invalid);
+        return new ImportResult(accepted, duplicates, invalid, errors);
+    }
+
+    private int saveChunk(List<Location> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> locationRepository.saveAll(chunk));
+        locationIndex.putAll(chunk.stream().map(LocationPoint::from).toList());
+        int saved = chunk.size();
+        chunk.clear();
+        return saved;
+    }
+
+    private LocationDto toLocationDto(Map<String, ?> values) {
+        LocationDto locationDto = new LocationDto();
+        locationDto.setName(text(values, "name"));
+        locationDto.setLatitude(coordinate(values, "latitude"));
+        locationDto.setLongitude(coordinate(values, "longitude"));
+        locationDto.setType(type(values));
+
+        Set<String> violations = locationValidator.validate(locationDto);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(String.join(", ", violations));
+        }
+        return locationDto;
+    }
+
+    private String text(Map<String, ?> values, String field) {
+        Object value = values.get(field);
+        return value == null || value.toString().isBlank() ? null : value.toString().trim();
+    }
+
+    private double coordinate(Map<String, ?> values, String field) {
+        String value = text(values, field);
+        if (value == null) {
+            throw new ValidationException("Campo " + field + " é obrigatório");
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Campo " + field + " inválido: " + value);
+        }
+    }
+
+    private LocationType type(Map<String, ?> values) {
+        String value = text(values, "type");
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return LocationType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Tipo da localização inválido: " + value);
+        }
+    }
+
+    private void report(List<ImportResult.RowError> errors, long row, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportResult.RowError(row, message));
+        }
+    }
+}
@@ -1,40 +1,103 @@
 package iot.logi.api.services;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
+import iot.logi.api.dtos.KeysetCursor;
 import iot.logi.api.dtos.LocationDto;
+import iot.logi.api.dtos.LocationView;
+import iot.logi.api.dtos.NearbyLocationDto;
+import iot.logi.api.exceptions.SaveEntityException;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.geo.LocationIndex;
+import iot.logi.api.geo.LocationPoint;
+import iot.logi.api.geo.NearbyPoint;
+import iot.logi.api.geo.NearbyQuery;
+import iot.logi.api.geo.SpatialGrid;
 import iot.logi.api.models.Location;
+import iot.logi.api.models.enums.LocationType;
+import iot.logi.api.repository.BatchInserter;
 import iot.logi.api.repository.LocationRepository;
+import iot.logi.api.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class LocationService {
+    public static final double PROXIMITY_TOLERANCE = 0.01; // tolerância de 0.01 graus (aproximadamente 1.1 km)
+    public static final String NEARBY_LOCATION_MESSAGE =
+            "Já existe uma localização muito próxima a estas coordenadas";
+
     private final LocationRepository locationRepository;
+    private final LocationIndex locationIndex;
+    private final TransactionRepository transactionRepository;
+    private final TransactionRollups transactionRollups;
+    private final BatchInserter batchInserter;
 
     @Autowired
-    public LocationService(LocationRepository locationRepository) {
+    public LocationService(LocationRepository locationRepository, LocationIndex locationIndex,
+                           TransactionRepository transactionRepository, TransactionRollups transactionRollups,
+                           BatchInserter batchInserter) {
         this.locationRepository = locationRepository;
+        this.locationIndex = locationIndex;
+        this.transactionRepository = transactionRepository;
+        this.transactionRollups = transactionRollups;
+        this.batchInserter = batchInserter;
     }
 
     @Transactional
     public Location createLocation(LocationDto locationDto) {
         validateUniqueLocation(locationDto);
 
-        Location location = new Location();
-        location.setName(locationDto.getName());
-        location.setLatitude(locationDto.getLatitude());
-        location.setLongitude(locationDto.getLongitude());
-        location.setType(locationDto.getType());
-
         try {
-            return locationRepository.save(location);
+            Location saved = locationRepository.save(toLocation(locationDto));
+            afterCommit(() -> locationIndex.put(LocationPoint.from(saved)));
+            return saved;
         } catch (Exception e) {
             throw new IllegalArgumentException("Erro ao salvar localização: " + e.getMessage());
         }
     }
 
+    @Transactional
+    public BatchResult createLocations(List<LocationDto> locationDtos) {
+        // Também recusa itens muito próximos de outro item aceito no mesmo lote
+        SpatialGrid accepted = new SpatialGrid(PROXIMITY_TOLERANCE);
+        List<Location> created = new ArrayList<>();
+
+        BatchResult result;
+        try {
+            result = batchInserter.insert(locationDtos, locationDto -> {
+                double latitude = locationDto.getLatitude();
+                double longitude = locationDto.getLongitude();
+                if (accepted.existsNear(latitude, longitude, PROXIMITY_TOLERANCE)
+                        || existsNearbyLocation(latitude, longitude)) {
+                    throw new ValidationException(NEARBY_LOCATION_MESSAGE);
+                }
+
+                Location location = toLocation(locationDto);
+                accepted.add(new LocationPoint(null, location.getName(), location.getType(), latitude, longitude));
+                created.add(location);
+                return location;
+            }, Location::getId);
+        } catch (DataAccessException e) {
+            throw new SaveEntityException("Erro ao salvar localizações: " + e.getMessage());
+        }
+
+        List<LocationPoint> points = created.stream().map(LocationPoint::from).toList();
+        afterCommit(() -> locationIndex.putAll(points));
+        return result;
+    }
+
     @Transactional(readOnly = true)
     public Location findLocationById(Long id) {
         return locationRepository.findById(id)
@@ -42,45 +105,114 @@ public class LocationService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Location> findAllLocations(Pageable pageable) {
-        return locationRepository.findAll(pageable);
+    public LocationView findLocationViewById(Long id) {
+        return locationRepository.findViewById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Localização não encontrada com ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<LocationView> findAllLocations(Pageable pageable) {
+        return locationRepository.findAllViews(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<LocationView> findLocationsAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = CursorPage.fetchLimit(size);
+        List<LocationView> rows = cursor == null
+                ? locationRepository.findFirstKeysetPage(limit)
+                : locationRepository.findKeysetPageAfter(cursor.name(), cursor.id(), limit);
+        return CursorPage.of(rows, size, location -> new KeysetCursor(location.id(), location.name()));
+    }
+
+    public List<NearbyLocationDto> findNearbyLocations(NearbyQuery query, LocationType type) {
+        List<NearbyPoint> nearby = query.radiusKm() != null
+                ? locationIndex.withinRadius(query.latitude(), query.longitude(), query.radiusKm(), type)
+                : locationIndex.nearest(query.latitude(), query.longitude(), query.k(), type);
+
+        return nearby.stream()
+                .limit(query.limit())
+                .map(NearbyLocationDto::from)
+                .toList();
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "locations", key = "#id"),
+            @CacheEvict(cacheNames = "devices", allEntries = true)
+    })
     public Location updateLocation(Long id, LocationDto locationDto) {
         Location location = findLocationById(id);
+        boolean coordinatesChanged = location.getLatitude() != locationDto.getLatitude()
+                || location.getLongitude() != locationDto.getLongitude();
         location.setName(locationDto.getName());
         location.setLatitude(locationDto.getLatitude());
         location.setLongitude(locationDto.getLongitude());
         location.setType(locationDto.getType());
 
         try {
-            return locationRepository.save(location);
+            Location saved = locationRepository.saveAndFlush(location);
+            if (coordinatesChanged) {
+                // Os deltas de distância saem da diferença para o valor ainda gravado
+                transactionRollups.locationMoved(id);
+                transactionRepository.recalculateDistancesForLocation(id);
+            }
+            afterCommit(() -> locationIndex.put(LocationPoint.from(saved)));
+            return saved;
         } catch (Exception e) {
             throw new IllegalArgumentException("Erro ao atualizar localização: " + e.getMessage());
         }
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "locations", key = "#id"),
+            @CacheEvict(cacheNames = "devices", allEntries = true)
+    })
     public void deleteLocation(Long id) {
         Location location = findLocationById(id);
 
         try {
             locationRepository.delete(location);
+            afterCommit(() -> locationIndex.remove(id));
         } catch (Exception e) {
             throw new IllegalArgumentException("Erro ao deletar localização: " + e.getMessage());
         }
     }
 
     private void validateUniqueLocation(LocationDto locationDto) {
-        boolean locationExists = locationRepository.existsByNearbyCoordinates(
-                locationDto.getLatitude(),
-                locationDto.getLongitude(),
-                0.01 // tolerância de 0.01 graus (aproximadamente 1.1 km)
-        );
-
-        if (locationExists) {
-            throw new IllegalArgumentException("Já existe uma localização muito próxima a estas coordenadas");
+        if (existsNearbyLocation(locationDto.getLatitude(), locationDto.getLongitude())) {
+            throw new IllegalArgumentException(NEARBY_LOCATION_MESSAGE);
         }
     }
+
+    public boolean existsNearbyLocation(double latitude, double longitude) {
+        return locationIndex.isLoaded()
+                ? locationIndex.existsNear(latitude, longitude, PROXIMITY_TOLERANCE)
+                : locationRepository.existsByNearbyCoordinates(latitude, longitude, PROXIMITY_TOLERANCE);
+    }
+
+    public Location toLocation(LocationDto locationDto) {
+        Location location = new Location();
+        location.setName(locationDto.getName());
+        location.setLatitude(locationDto.getLatitude());
+        location.setLongitude(locationDto.getLongitude());
+        location.setType(locationDto.getType());
+        return location;
+    }
+
+    // O índice só reflete o que foi de fato persistido
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
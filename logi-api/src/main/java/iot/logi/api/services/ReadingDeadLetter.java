@@ -0,0 +1,82 @@
+package iot.logi.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import iot.logi.api.dtos.ReadingDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Destino das leituras já aceitas (202) cuja gravação falhou em todas as tentativas: cada grupo vira uma mensagem
+ * na fila de dead-letter, em NDJSON no mesmo formato do POST /iot/readings, para ser reenviado quando o banco voltar.
+ */
+@Component
+public class ReadingDeadLetter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingDeadLetter.class);
+
+    private static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter deadLettered;
+    private final Counter lost;
+
+    @Value("${logi.ingest.dead-letter-queue:logi_readings_dead_letter}")
+    private String queue;
+
+    @Value("${logi.ingest.dead-letter-confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public ReadingDeadLetter(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.deadLettered = meterRegistry.counter("logi.ingest.dead_lettered");
+        this.lost = meterRegistry.counter("logi.ingest.lost");
+    }
+
+    public void publish(List<ReadingDto> readings, Exception cause) {
+        try {
+            Message message = toMessage(readings, cause);
+            rabbitTemplate.invoke(operations -> {
+                operations.send("", queue, message);
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+            deadLettered.increment(readings.size());
+            log.error("Dead-lettered {} device readings to {} after write failure", readings.size(), queue, cause);
+        } catch (Exception e) {
+            lost.increment(readings.size());
+            log.error("Lost {} device readings: write failed ({}) and dead-letter publish failed",
+                    readings.size(), cause.getMessage(), e);
+        }
+    }
+
+    private Message toMessage(List<ReadingDto> readings, Exception cause) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (ReadingDto reading : readings) {
+            objectMapper.writeValue(body, reading);
+            body.write('\n');
+        }
+        return MessageBuilder.withBody(body.toByteArray())
+                .setContentType(CONTENT_TYPE_NDJSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setTimestamp(new Date())
+                .setHeader("x-exception", cause.getClass().getName())
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package iot.logi.api.services;
+
+import iot.logi.api.dtos.RollupReportRow;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.models.enums.RollupDimension;
+import iot.logi.api.repository.TransactionRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Relatórios servidos só a partir de transaction_daily_rollups; nunca varrem a tabela de transações
+// O backfill lê distance_km, então espera a migração das distâncias
+@Service
+@DependsOnDatabaseInitialization
+@DependsOn("transactionDistanceMigration")
+public class ReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportService.class);
+
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxDays;
+    private final int rebuildDays;
+    private volatile boolean backfilled;
+
+    public ReportService(TransactionRollupRepository transactionRollupRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${logi.reports.max-days:400}") int maxDays,
+                         @Value("${logi.rollups.rebuild-days:3}") int rebuildDays) {
+        this.transactionRollupRepository = transactionRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxDays = maxDays;
+        this.rebuildDays = rebuildDays;
+    }
+
+    public List<RollupReportRow> findDaily(RollupDimension dimension, LocalDate from, LocalDate to, Long id) {
+        checkRange(from, to);
+        return readOnlyTransaction.execute(status ->
+                transactionRollupRepository.findDaily(dimension, from, to.plusDays(1), id));
+    }
+
+    public List<RollupReportRow> findTotals(RollupDimension dimension, LocalDate from, LocalDate to, Long id) {
+        checkRange(from, to);
+        return readOnlyTransaction.execute(status ->
+                transactionRollupRepository.findTotals(dimension, from, to.plusDays(1), id));
+    }
+
+    // Reconstrói mês a mês, cada um na sua transação, para não segurar o lock da tabela por muito tempo
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("Data final deve ser igual ou posterior à data inicial");
+        }
+
+        int rows = 0;
+        LocalDate end = to.plusDays(1);
+        for (LocalDate start = from; start.isBefore(end); ) {
+            LocalDate chunkStart = start;
+            LocalDate chunkEnd = min(start.withDayOfMonth(1).plusMonths(1), end);
+            Integer chunkRows = transactionTemplate.execute(status ->
+                    transactionRollupRepository.rebuild(chunkStart, chunkEnd));
+            rows += chunkRows != null ? chunkRows : 0;
+            start = chunkEnd;
+        }
+        log.info("Rebuilt transaction rollups from {} to {}: {} rows", from, to, rows);
+        return rows;
+    }
+
+    // Corrige a janela recente (ex.: escritas feitas direto no banco); enquanto o backfill não concluir, tenta ele
+    @Scheduled(cron = "${logi.rollups.rebuild-cron:0 30 3 * * *}", zone = "UTC")
+    public void rebuildRecent() {
+        if (!backfilled) {
+            backfill();
+            return;
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        try {
+            rebuild(today.minusDays(rebuildDays), today);
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Error rebuilding recent transaction rollups", e);
+        }
+    }
+
+    /**
+     * Backfill de todo o histórico, uma única vez: a conclusão fica registrada em transaction_rollup_state, não na
+     * tabela de rollups ter linhas. Roda na inicialização, antes do servidor web e de qualquer escrita incremental
+     * (@DependsOn em TransactionRollups); se falhar, a aplicação sobe e o agendamento noturno tenta de novo, e a
+     * reconstrução sob lock sobrescreve os deltas aplicados nesse meio tempo.
+     */
+    @PostConstruct
+    public void backfill() {
+        try {
+            if (transactionRollupRepository.isBackfilled()) {
+                backfilled = true;
+                return;
+            }
+
+            LocalDate first = transactionRollupRepository.findFirstDispatchDay();
+            if (first != null) {
+                LocalDate today = LocalDate.now(ZoneOffset.UTC);
+                LocalDate last = transactionRollupRepository.findLastDispatchDay();
+                rebuild(first, last.isAfter(today) ? last : today);
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    transactionRollupRepository.markBackfilled(LocalDateTime.now(ZoneOffset.UTC)));
+            backfilled = true;
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Error backfilling transaction rollups, retrying on the next scheduled rebuild", e);
+        }
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("Data final deve ser igual ou posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new ValidationException("Período máximo do relatório é de " + maxDays + " dias");
+        }
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
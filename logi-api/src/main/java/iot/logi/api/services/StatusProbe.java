@@ -0,0 +1,161 @@
+package iot.logi.api.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Verifica banco e broker em segundo plano; o GET /status só devolve o último snapshot
+@Component
+public class StatusProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusProbe.class);
+
+    public static final String PROBE_TIMER = "logi.status.probe";
+
+    public record Dependency(String status, String version, long latencyMs) {
+    }
+
+    public record Snapshot(Dependency database, Dependency messageBroker, Instant checkedAt) {
+
+        public boolean healthy() {
+            return "OK".equals(database.status()) && "OK".equals(messageBroker.status());
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    // Uma thread por dependência: uma verificação presa em I/O não acumula threads, a próxima rodada é pulada
+    private final ExecutorService executor = Executors.newFixedThreadPool(2,
+            Thread.ofPlatform().name("status-probe-", 0).daemon().factory());
+    private final long databaseTimeoutMs;
+    private final long brokerTimeoutMs;
+    private final Duration staleness;
+    private volatile Snapshot snapshot;
+    private CompletableFuture<Dependency> pendingDatabase;
+    private CompletableFuture<Dependency> pendingMessageBroker;
+
+    public StatusProbe(DataSource dataSource, RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+                       @Value("${logi.status.database-timeout-ms:2000}") long databaseTimeoutMs,
+                       @Value("${logi.status.broker-timeout-ms:2000}") long brokerTimeoutMs,
+                       @Value("${logi.status.staleness-ms:15000}") long stalenessMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(databaseTimeoutMs)));
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.databaseTimeoutMs = databaseTimeoutMs;
+        this.brokerTimeoutMs = brokerTimeoutMs;
+        this.staleness = Duration.ofMillis(stalenessMs);
+    }
+
+    @Scheduled(fixedDelayString = "${logi.status.refresh-interval-ms:5000}")
+    public void refresh() {
+        // Sem novo snapshot enquanto a anterior não termina; o /status passa a mostrá-lo como desatualizado
+        if (isRunning(pendingDatabase) || isRunning(pendingMessageBroker)) {
+            log.warn("Skipping status refresh: previous probe still running");
+            return;
+        }
+
+        long submitted = System.nanoTime();
+        AtomicBoolean databaseRecorded = new AtomicBoolean();
+        AtomicBoolean messageBrokerRecorded = new AtomicBoolean();
+        pendingDatabase = CompletableFuture.supplyAsync(() -> probe("database", databaseRecorded,
+                () -> jdbcTemplate.queryForObject("SHOW server_version;", String.class)), executor);
+        pendingMessageBroker = CompletableFuture.supplyAsync(() -> probe("messageBroker", messageBrokerRecorded,
+                () -> rabbitTemplate.execute(channel ->
+                        channel.getConnection().getServerProperties().get("version").toString())), executor);
+
+        snapshot = new Snapshot(
+                await("database", pendingDatabase, databaseRecorded, submitted, databaseTimeoutMs),
+                await("messageBroker", pendingMessageBroker, messageBrokerRecorded, submitted, brokerTimeoutMs),
+                Instant.now()
+        );
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isStale(Snapshot snapshot) {
+        return snapshot == null || snapshot.checkedAt().plus(staleness).isBefore(Instant.now());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Dependency probe(String dependency, AtomicBoolean recorded, Callable<String> check) {
+        long start = System.nanoTime();
+        String status = "OK";
+        String version = null;
+        try {
+            version = check.call();
+        } catch (Exception e) {
+            status = "ERROR";
+            log.error("Error checking {}", dependency, e);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        if (recorded.compareAndSet(false, true)) {
+            record(dependency, status, elapsed);
+        }
+        return new Dependency(status, version, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    // As duas verificações rodam em paralelo; o prazo de cada uma conta a partir do envio. Cada verificação gera
+    // uma única amostra: a do TIMEOUT ou a do resultado, o que vier primeiro
+    private Dependency await(String dependency, Future<Dependency> result, AtomicBoolean recorded, long submitted,
+                             long timeoutMs) {
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs) - (System.nanoTime() - submitted);
+            return result.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Sem cancelar: o futuro só conclui quando a verificação termina de fato, e isRunning depende disso
+            if (recorded.compareAndSet(false, true)) {
+                record(dependency, "TIMEOUT", TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+            }
+            log.error("Timed out after {} ms checking {}", timeoutMs, dependency);
+            return new Dependency("TIMEOUT", null, timeoutMs);
+        } catch (ExecutionException e) {
+            log.error("Error checking {}", dependency, e.getCause());
+            return new Dependency("ERROR", null, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Dependency("ERROR", null, 0);
+        }
+    }
+
+    private static boolean isRunning(Future<?> probe) {
+        return probe != null && !probe.isDone();
+    }
+
+    private void record(String dependency, String outcome, long nanos) {
+        Timer.builder(PROBE_TIMER)
+                .description("Latência das verificações de dependências do /status")
+                .tag("dependency", dependency)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,292 @@
+package iot.logi.api.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import iot.logi.api.dtos.ReadingDto;
+import iot.logi.api.exceptions.IngestQueueFullException;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.repository.VehiclePositionRepository;
+import iot.logi.api.repository.VehiclePositionRepository.OngoingTrip;
+import iot.logi.api.validators.ObjectsValidator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// O writer só começa depois de garantidas as partições do mês corrente
+@Service
+@DependsOn("vehiclePositionPartitions")
+public class TelemetryIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryIngestService.class);
+
+    private static final String INSERT_READING_SQL = """
+            INSERT INTO device_readings (device_id, recorded_at, latitude, longitude, sensors)
+            VALUES (?, ?, ?, ?, CAST(? AS jsonb))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectsValidator<ReadingDto> readingValidator;
+    private final DeviceTrackingWriteBehind deviceTrackingWriteBehind;
+    private final VehiclePositionRepository vehiclePositionRepository;
+    private final TripDistanceTracker tripDistanceTracker;
+    private final GeofenceEngine geofenceEngine;
+    private final ReadingDeadLetter readingDeadLetter;
+
+    private final BlockingQueue<List<ReadingDto>> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingReadings = new AtomicInteger();
+    private final Thread writer = new Thread(this::drainQueue, "telemetry-writer");
+    private volatile boolean running = true;
+
+    @Value("${logi.ingest.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${logi.ingest.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${logi.ingest.max-rows-per-commit:5000}")
+    private int maxRowsPerCommit;
+
+    @Value("${logi.ingest.poll-timeout-ms:200}")
+    private long pollTimeoutMs;
+
+    @Value("${logi.ingest.write-attempts:4}")
+    private int writeAttempts;
+
+    @Value("${logi.ingest.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    @Value("${logi.ingest.max-retry-backoff-ms:5000}")
+    private long maxRetryBackoffMs;
+
+    public TelemetryIngestService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper, ObjectsValidator<ReadingDto> readingValidator,
+                                  DeviceTrackingWriteBehind deviceTrackingWriteBehind,
+                                  VehiclePositionRepository vehiclePositionRepository,
+                                  TripDistanceTracker tripDistanceTracker, GeofenceEngine geofenceEngine,
+                                  ReadingDeadLetter readingDeadLetter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.readingValidator = readingValidator;
+        this.deviceTrackingWriteBehind = deviceTrackingWriteBehind;
+        this.vehiclePositionRepository = vehiclePositionRepository;
+        this.tripDistanceTracker = tripDistanceTracker;
+        this.geofenceEngine = geofenceEngine;
+        this.readingDeadLetter = readingDeadLetter;
+    }
+
+    @PostConstruct
+    void startWriter() {
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stopWriter() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public int enqueue(List<ReadingDto> readings) {
+        for (int i = 0; i < readings.size(); i++) {
+            validateReading(i, readings.get(i));
+        }
+        if (readings.isEmpty()) {
+            return 0;
+        }
+
+        reserve(readings.size());
+        queue.add(List.copyOf(readings));
+        return readings.size();
+    }
+
+    /**
+     * Lê o corpo em lotes de {@code jdbc-batch-size}, reservando espaço na fila a cada lote: um corpo maior que a
+     * capacidade restante é recusado com 503 assim que a ultrapassa, sem ser lido inteiro para a memória. Os lotes
+     * só entram na fila depois de o corpo inteiro ser lido e validado, então um corpo recusado não deixa nada
+     * enfileirado.
+     */
+    public int enqueueNdjson(InputStream body) {
+        List<List<ReadingDto>> chunks = new ArrayList<>();
+        List<ReadingDto> chunk = new ArrayList<>(jdbcBatchSize);
+        int reserved = 0;
+        try (MappingIterator<ReadingDto> iterator = objectMapper.readerFor(ReadingDto.class).readValues(body)) {
+            for (int i = 0; iterator.hasNextValue(); i++) {
+                ReadingDto reading = iterator.nextValue();
+                validateReading(i, reading);
+                chunk.add(reading);
+                if (chunk.size() == jdbcBatchSize) {
+                    reserve(chunk.size());
+                    reserved += chunk.size();
+                    chunks.add(List.copyOf(chunk));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                reserve(chunk.size());
+                reserved += chunk.size();
+                chunks.add(List.copyOf(chunk));
+            }
+        } catch (IOException e) {
+            pendingReadings.addAndGet(-reserved);
+            throw new ValidationException("Corpo NDJSON inválido: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            pendingReadings.addAndGet(-reserved);
+            throw e;
+        }
+
+        queue.addAll(chunks);
+        return reserved;
+    }
+
+    public int getPendingReadings() {
+        return pendingReadings.get();
+    }
+
+    private void reserve(int size) {
+        if (pendingReadings.addAndGet(size) > queueCapacity) {
+            pendingReadings.addAndGet(-size);
+            throw new IngestQueueFullException("Fila de ingestão cheia, tente novamente em instantes");
+        }
+    }
+
+    private void validateReading(int index, ReadingDto reading) {
+        if (reading == null) {
+            throw new ValidationException("Leitura " + index + " está vazia");
+        }
+
+        Set<String> violations = readingValidator.validate(reading);
+        if (!violations.isEmpty()) {
+            throw new ValidationException("Leitura " + index + " inválida: " + String.join(", ", violations));
+        }
+    }
+
+    // Agrupa os lotes pendentes em uma única transação para diluir o custo de commit
+    private void drainQueue() {
+        List<ReadingDto> group = new ArrayList<>(maxRowsPerCommit);
+        while (running || !queue.isEmpty()) {
+            try {
+                List<ReadingDto> batch = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+
+                group.addAll(batch);
+                while (group.size() < maxRowsPerCommit && (batch = queue.poll()) != null) {
+                    group.addAll(batch);
+                }
+
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void writeGroup(List<ReadingDto> readings) {
+        try {
+            Map<Long, OngoingTrip> trips = persist(readings);
+            if (trips == null) {
+                return;
+            }
+
+            tripDistanceTracker.accept(readings, trips);
+            geofenceEngine.evaluate(readings, trips);
+            readings.forEach(reading -> deviceTrackingWriteBehind.record(reading.getDeviceId(), reading.getTimestamp()));
+        } catch (Exception e) {
+            log.error("Error processing {} written device readings", readings.size(), e);
+        } finally {
+            pendingReadings.addAndGet(-readings.size());
+        }
+    }
+
+    // As leituras já foram aceitas com 202: falhas do banco são tentadas de novo com backoff exponencial (enquanto
+    // isso a fila enche e a ingestão responde 503) e, esgotadas as tentativas, o grupo vai para a dead-letter
+    private Map<Long, OngoingTrip> persist(List<ReadingDto> readings) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return insert(readings);
+            } catch (DataIntegrityViolationException e) {
+                // Dado recusado pelo banco não passa numa nova tentativa
+                readingDeadLetter.publish(readings, e);
+                return null;
+            } catch (DataAccessException | TransactionException e) {
+                if (attempt >= writeAttempts) {
+                    readingDeadLetter.publish(readings, e);
+                    return null;
+                }
+
+                log.warn("Error writing {} device readings (attempt {} of {}), retrying in {} ms: {}",
+                        readings.size(), attempt, writeAttempts, backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    readingDeadLetter.publish(readings, e);
+                    return null;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxRetryBackoffMs);
+            } catch (RuntimeException e) {
+                readingDeadLetter.publish(readings, e);
+                return null;
+            }
+        }
+    }
+
+    private Map<Long, OngoingTrip> insert(List<ReadingDto> readings) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_READING_SQL, readings, jdbcBatchSize, (ps, reading) -> {
+                ps.setLong(1, reading.getDeviceId());
+                ps.setObject(2, reading.getTimestamp());
+                ps.setDouble(3, reading.getLatitude());
+                ps.setDouble(4, reading.getLongitude());
+                ps.setString(5, toJson(reading.getSensors()));
+            });
+            // Mesmo commit das leituras: o trajeto nunca fica à frente do histórico bruto
+            Map<Long, OngoingTrip> ongoing = vehiclePositionRepository.findOngoingTripsByDevices(
+                    readings.stream().map(ReadingDto::getDeviceId).collect(Collectors.toSet()));
+            vehiclePositionRepository.append(readings, ongoing, jdbcBatchSize);
+            return ongoing;
+        });
+    }
+
+    private String toJson(Map<String, Double> sensors) {
+        if (sensors == null || sensors.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsString(sensors);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar sensores da leitura", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package iot.logi.api.services;
+
+import iot.logi.api.dtos.TrackDto;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.geo.TrackPoint;
+import iot.logi.api.geo.TrackSimplifier;
+import iot.logi.api.repository.VehiclePositionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class TrackService {
+
+    private static final int MAX_POINTS_LIMIT = 10_000;
+
+    public enum Algorithm {
+        LTTB,
+        DOUGLAS_PEUCKER,
+        NONE;
+
+        public static Algorithm of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Algoritmo de simplificação inválido: " + value);
+            }
+        }
+    }
+
+    private final TransactionService transactionService;
+    private final VehiclePositionRepository vehiclePositionRepository;
+    private final int defaultMaxPoints;
+    private final double defaultToleranceMeters;
+
+    public TrackService(TransactionService transactionService, VehiclePositionRepository vehiclePositionRepository,
+                        @Value("${logi.track.max-points:1000}") int defaultMaxPoints,
+                        @Value("${logi.track.default-tolerance-m:10}") double defaultToleranceMeters) {
+        this.transactionService = transactionService;
+        this.vehiclePositionRepository = vehiclePositionRepository;
+        this.defaultMaxPoints = defaultMaxPoints;
+        this.defaultToleranceMeters = defaultToleranceMeters;
+    }
+
+    public TrackDto findTrack(Long transactionId, Integer maxPoints, Algorithm algorithm, Double toleranceMeters) {
+        int limit = maxPoints == null ? defaultMaxPoints : maxPoints;
+        if (limit < 2 || limit > MAX_POINTS_LIMIT) {
+            throw new ValidationException("Quantidade máxima de pontos deve estar entre 2 e " + MAX_POINTS_LIMIT);
+        }
+        if (toleranceMeters != null && toleranceMeters < 0) {
+            throw new ValidationException("Tolerância não pode ser negativa");
+        }
+
+        TransactionView transaction = transactionService.findTransactionViewById(transactionId);
+        if (transaction.dispatchTime() == null) {
+            return new TrackDto(transactionId, 0, algorithm.name(), List.of());
+        }
+
+        LocalDateTime to = transaction.arrivalTime() != null ? transaction.arrivalTime() : LocalDateTime.now();
+        List<TrackPoint> points = vehiclePositionRepository.findTrack(transactionId, transaction.dispatchTime(), to);
+        return new TrackDto(transactionId, points.size(), algorithm.name(),
+                simplify(points, limit, algorithm, toleranceMeters));
+    }
+
+    // NONE ainda respeita o limite de pontos; o Douglas-Peucker é completado pelo LTTB quando sobra ponto demais
+    private List<TrackPoint> simplify(List<TrackPoint> points, int maxPoints, Algorithm algorithm,
+                                      Double toleranceMeters) {
+        return switch (algorithm) {
+            case LTTB -> TrackSimplifier.lttb(points, maxPoints);
+            case DOUGLAS_PEUCKER -> TrackSimplifier.lttb(TrackSimplifier.douglasPeucker(points,
+                    toleranceMeters != null ? toleranceMeters : defaultToleranceMeters), maxPoints);
+            case NONE -> points.size() > maxPoints ? points.subList(0, maxPoints) : points;
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package iot.logi.api.services;
+
+import iot.logi.api.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Preenche distance_km das transações gravadas antes da coluna existir. Roda uma vez na subida, antes do backfill
+ * dos rollups (@DependsOn em ReportService), em lotes curtos e cada um na sua transação para não travar a tabela
+ * toda; nas subidas seguintes o índice parcial ix_transactions_missing_distance torna a verificação imediata.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class TransactionDistanceMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionDistanceMigration.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public TransactionDistanceMigration(TransactionRepository transactionRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${logi.transactions.distance-migration-batch-size:1000}")
+                                        int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void calculateMissingDistances() {
+        int total = 0;
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = transactionRepository.findMissingDistanceIds(afterId, batchSize)).isEmpty()) {
+            List<Long> batch = ids;
+            Integer updated = transactionTemplate.execute(status -> transactionRepository.calculateDistances(batch));
+            total += updated != null ? updated : 0;
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (total > 0) {
+            log.info("Calculated distance of {} transactions", total);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package iot.logi.api.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import iot.logi.api.dtos.SummaryView;
+import iot.logi.api.dtos.TransactionFilter;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.repository.TransactionQueryRepository;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+public class TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,dispatchTime,arrivalTime,originLocationId,originLocationName,"
+            + "destinyLocationId,destinyLocationName,vehicleId,vehicleName,driverId,driverName,"
+            + "cargoDescription,distanceKm\n";
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Formato de exportação inválido: " + value);
+            }
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private final TransactionQueryRepository transactionQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(TransactionQueryRepository transactionQueryRepository, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionQueryRepository = transactionQueryRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Roda na thread do StreamingResponseBody: o cursor fica aberto só enquanto a resposta é escrita
+    public void export(TransactionFilter filter, Format format, OutputStream outputStream) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TransactionView> rows = transactionQueryRepository.stream(filter)) {
+                    if (format == Format.CSV) {
+                        writeCsv(rows.iterator(), outputStream);
+                    } else {
+                        writeNdjson(rows.iterator(), outputStream);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionView> rows, OutputStream outputStream) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        boolean empty = !rows.hasNext();
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(buffered)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+            }
+        }
+        if (!empty) {
+            buffered.write('\n');
+        }
+        buffered.flush();
+    }
+
+    private void writeCsv(Iterator<TransactionView> rows, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        while (rows.hasNext()) {
+            TransactionView row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writeCsvField(writer, row.dispatchTime());
+            writeCsvField(writer, row.arrivalTime());
+            writeCsvSummary(writer, row.originLocation());
+            writeCsvSummary(writer, row.destinyLocation());
+            writeCsvSummary(writer, row.vehicle());
+            writeCsvSummary(writer, row.driver());
+            writeCsvField(writer, row.cargoDescription());
+            writeCsvField(writer, row.distanceKm());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeCsvSummary(Writer writer, SummaryView summary) throws IOException {
+        writeCsvField(writer, summary != null ? summary.id() : null);
+        writeCsvField(writer, summary != null ? summary.name() : null);
+    }
+
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,150 @@
+package iot.logi.api.services;
+
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.enums.RollupDimension;
+import iot.logi.api.repository.TransactionRollupRepository;
+import iot.logi.api.repository.TransactionRollupRepository.Delta;
+import iot.logi.api.repository.TransactionRollupRepository.DistanceChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém transaction_daily_rollups a cada escrita de transação: retira a contribuição do estado anterior e soma a
+ * do novo, na transação de quem chama. Uma transação contribui no dia do despacho (sem despacho, não conta) para
+ * o local de origem, o veículo e o motorista; a duração só conta quando a chegada é posterior ao despacho.
+ * Só é criado depois do backfill do histórico (ReportService), para que nenhum delta chegue antes dele.
+ */
+@Component
+@DependsOn("reportService")
+public class TransactionRollups {
+
+    // Ordem fixa das linhas atualizadas para que escritas concorrentes não entrem em deadlock
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::dimension)
+            .thenComparing(Key::dimensionId)
+            .thenComparing(Key::day);
+
+    public record Snapshot(Long originLocationId, Long vehicleId, Long driverId, LocalDateTime dispatchTime,
+                           LocalDateTime arrivalTime, Double distanceKm) {
+
+        public static Snapshot of(Transaction transaction) {
+            return new Snapshot(
+                    transaction.getOriginLocation().getId(),
+                    transaction.getVehicle().getId(),
+                    transaction.getDriver().getId(),
+                    transaction.getDispatchTime(),
+                    transaction.getArrivalTime(),
+                    transaction.getDistanceKm()
+            );
+        }
+    }
+
+    private record Key(RollupDimension dimension, Long dimensionId, LocalDate day) {
+    }
+
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final boolean incremental;
+
+    public TransactionRollups(TransactionRollupRepository transactionRollupRepository,
+                              @Value("${logi.rollups.incremental:true}") boolean incremental) {
+        this.transactionRollupRepository = transactionRollupRepository;
+        this.incremental = incremental;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<Transaction> transactions) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        transactions.forEach(transaction -> add(deltas, Snapshot.of(transaction), 1));
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(Snapshot before, Transaction after) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        add(deltas, before, -1);
+        add(deltas, Snapshot.of(after), 1);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Transaction transaction) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        add(deltas, Snapshot.of(transaction), -1);
+        apply(deltas);
+    }
+
+    // Chamado antes de TransactionRepository.recalculateDistancesForLocation, cujo UPDATE nativo não passa por aqui
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void locationMoved(Long locationId) {
+        if (!incremental) {
+            return;
+        }
+
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (DistanceChange change : transactionRollupRepository.findDistanceChangesForLocation(locationId)) {
+            add(deltas, new Delta(RollupDimension.LOCATION, change.originLocationId(), change.day(), 0, 0, 0,
+                    change.distanceKm()));
+            add(deltas, new Delta(RollupDimension.VEHICLE, change.vehicleId(), change.day(), 0, 0, 0,
+                    change.distanceKm()));
+            add(deltas, new Delta(RollupDimension.DRIVER, change.driverId(), change.day(), 0, 0, 0,
+                    change.distanceKm()));
+        }
+        apply(deltas);
+    }
+
+    private void apply(Map<Key, Delta> deltas) {
+        if (!incremental) {
+            return;
+        }
+
+        // Uma edição que não muda dia, entidades nem tempos se anula e não gera escrita
+        List<Delta> changes = new ArrayList<>(deltas.size());
+        deltas.values().stream().filter(delta -> !delta.isEmpty()).forEach(changes::add);
+        if (!changes.isEmpty()) {
+            transactionRollupRepository.apply(changes);
+        }
+    }
+
+    private static void add(Map<Key, Delta> deltas, Snapshot snapshot, int sign) {
+        if (snapshot.dispatchTime() == null) {
+            return;
+        }
+
+        LocalDate day = snapshot.dispatchTime().toLocalDate();
+        boolean completed = snapshot.arrivalTime() != null && !snapshot.arrivalTime().isBefore(snapshot.dispatchTime());
+        long durationSeconds = completed
+                ? Duration.between(snapshot.dispatchTime(), snapshot.arrivalTime()).getSeconds()
+                : 0;
+        double distanceKm = snapshot.distanceKm() != null ? snapshot.distanceKm() : 0;
+        add(deltas, new Delta(RollupDimension.LOCATION, snapshot.originLocationId(), day, sign,
+                completed ? sign : 0, sign * durationSeconds, sign * distanceKm));
+        add(deltas, new Delta(RollupDimension.VEHICLE, snapshot.vehicleId(), day, sign,
+                completed ? sign : 0, sign * durationSeconds, sign * distanceKm));
+        add(deltas, new Delta(RollupDimension.DRIVER, snapshot.driverId(), day, sign,
+                completed ? sign : 0, sign * durationSeconds, sign * distanceKm));
+    }
+
+    private static void add(Map<Key, Delta> deltas, Delta delta) {
+        deltas.merge(new Key(delta.dimension(), delta.dimensionId(), delta.day()), delta, (current, next) -> new Delta(
+                current.dimension(),
+                current.dimensionId(),
+                current.day(),
+                current.transactions() + next.transactions(),
+                current.completed() + next.completed(),
+                current.durationSeconds() + next.durationSeconds(),
+                current.distanceKm() + next.distanceKm()
+        ));
+    }
+}
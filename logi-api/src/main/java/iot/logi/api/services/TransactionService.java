@@ -1,67 +1,185 @@
 package iot.logi.api.services;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
+import iot.logi.api.dtos.DriverView;
+import iot.logi.api.dtos.KeysetCursor;
+import iot.logi.api.dtos.LocationView;
+import iot.logi.api.dtos.TransactionDistanceDto;
 import iot.logi.api.dtos.TransactionDto;
+import iot.logi.api.dtos.TransactionFilter;
+import iot.logi.api.dtos.TransactionView;
+import iot.logi.api.dtos.VehicleView;
 import iot.logi.api.exceptions.SaveEntityException;
 import iot.logi.api.exceptions.ValidationException;
-import iot.logi.api.models.Driver;
+import iot.logi.api.geo.GeoUtils;
+import iot.logi.api.geo.LocationPoint;
 import iot.logi.api.models.Location;
 import iot.logi.api.models.Transaction;
-import iot.logi.api.models.Vehicle;
+import iot.logi.api.models.enums.TransactionStatus;
+import iot.logi.api.outbox.TransactionOutbox;
+import iot.logi.api.repository.BatchInserter;
 import iot.logi.api.repository.DriverRepository;
 import iot.logi.api.repository.LocationRepository;
+import iot.logi.api.repository.TransactionQueryRepository;
 import iot.logi.api.repository.TransactionRepository;
 import iot.logi.api.repository.VehicleRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class TransactionService {
+
+    private static final int MAX_DISTANCE_IDS = 1000;
+    private static final String ONGOING_TRANSACTION_CONSTRAINT = "ux_transactions_ongoing_";
+    private static final String ONGOING_TRANSACTION_MESSAGE =
+            "Veículo ou motorista já está em uma transação em andamento";
+
     private final TransactionRepository transactionRepository;
+    private final TransactionQueryRepository transactionQueryRepository;
     private final LocationRepository locationRepository;
     private final DriverRepository driverRepository;
     private final VehicleRepository vehicleRepository;
+    private final BatchInserter batchInserter;
+    private final TransactionOutbox transactionOutbox;
+    private final TripDistanceTracker tripDistanceTracker;
+    private final TransactionRollups transactionRollups;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository, LocationRepository locationRepository, DriverRepository driverRepository, VehicleRepository vehicleRepository) {
+    public TransactionService(TransactionRepository transactionRepository,
+                              TransactionQueryRepository transactionQueryRepository, LocationRepository locationRepository, DriverRepository driverRepository, VehicleRepository vehicleRepository, BatchInserter batchInserter,
+                              TransactionOutbox transactionOutbox, TripDistanceTracker tripDistanceTracker,
+                              TransactionRollups transactionRollups) {
         this.transactionRepository = transactionRepository;
+        this.transactionQueryRepository = transactionQueryRepository;
         this.locationRepository = locationRepository;
         this.driverRepository = driverRepository;
         this.vehicleRepository = vehicleRepository;
+        this.batchInserter = batchInserter;
+        this.transactionOutbox = transactionOutbox;
+        this.tripDistanceTracker = tripDistanceTracker;
+        this.transactionRollups = transactionRollups;
     }
 
     @Transactional
-    public Transaction createTransaction(TransactionDto transactionDto) {
-        Location originLocation = findLocationById(transactionDto.getOriginLocationId());
-        Location destinyLocation = findLocationById(transactionDto.getDestinyLocationId());
-        Vehicle vehicle = findVehicleById(transactionDto.getVehicleId());
-        Driver driver = findDriverById(transactionDto.getDriverId());
-
-        if (transactionRepository.hasOngoingTransaction(vehicle.getId(), driver.getId())) {
-            throw new ValidationException(
-                    "Veículo ou motorista já está em uma transação em andamento"
-            );
-        }
+    public TransactionView createTransaction(TransactionDto transactionDto) {
+        LocationView originLocation = findLocationById(transactionDto.getOriginLocationId());
+        LocationView destinyLocation = findLocationById(transactionDto.getDestinyLocationId());
+        VehicleView vehicle = findVehicleById(transactionDto.getVehicleId());
+        DriverView driver = findDriverById(transactionDto.getDriverId());
 
         Transaction transaction = Transaction.builder()
-                .originLocation(originLocation)
-                .destinyLocation(destinyLocation)
-                .vehicle(vehicle)
-                .driver(driver)
+                .originLocation(locationRepository.getReferenceById(originLocation.id()))
+                .destinyLocation(locationRepository.getReferenceById(destinyLocation.id()))
+                .vehicle(vehicleRepository.getReferenceById(vehicle.id()))
+                .driver(driverRepository.getReferenceById(driver.id()))
                 .dispatchTime(transactionDto.getDispatchTime())
                 .arrivalTime(transactionDto.getArrivalTime())
                 .cargoDescription(transactionDto.getCargoDescription())
+                .distanceKm(calculateDistance(originLocation, destinyLocation))
                 .build();
 
         try {
-            return transactionRepository.save(transaction);
+            Transaction saved = transactionRepository.saveAndFlush(transaction);
+            transactionOutbox.created(List.of(saved));
+            transactionRollups.created(List.of(saved));
+            return TransactionView.of(saved, originLocation.summary(), destinyLocation.summary(),
+                    vehicle.summary(), driver.summary());
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation("Erro ao salvar transação: ", e);
         } catch (Exception e) {
             throw new SaveEntityException("Erro ao salvar transação: " + e.getMessage());
         }
     }
 
+    @Transactional
+    public BatchResult createTransactions(List<TransactionDto> transactionDtos) {
+        batchInserter.checkSize(transactionDtos);
+
+        Set<Long> locationIds = new HashSet<>(
+                BatchInserter.idsOf(transactionDtos, TransactionDto::getOriginLocationId));
+        locationIds.addAll(BatchInserter.idsOf(transactionDtos, TransactionDto::getDestinyLocationId));
+        Set<Long> vehicleIds = BatchInserter.idsOf(transactionDtos, TransactionDto::getVehicleId);
+        Set<Long> driverIds = BatchInserter.idsOf(transactionDtos, TransactionDto::getDriverId);
+
+        // Referências e transações em andamento resolvidas em poucas consultas para o lote inteiro
+        Map<Long, LocationPoint> locations = locationIds.isEmpty() ? Map.of() : locationRepository
+                .findPointsByIds(locationIds).stream()
+                .collect(Collectors.toMap(LocationPoint::id, Function.identity()));
+        Set<Long> existingVehicleIds = vehicleIds.isEmpty() ? Set.of() : vehicleRepository.findExistingIds(vehicleIds);
+        Set<Long> existingDriverIds = driverIds.isEmpty() ? Set.of() : driverRepository.findExistingIds(driverIds);
+        Set<Long> ongoingVehicleIds = vehicleIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(transactionRepository.findOngoingVehicleIds(vehicleIds));
+        Set<Long> ongoingDriverIds = driverIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(transactionRepository.findOngoingDriverIds(driverIds));
+
+        List<Transaction> created = new ArrayList<>();
+        try {
+            BatchResult result = batchInserter.insert(transactionDtos, transactionDto -> {
+                LocationPoint originLocation = requireBatchLocation(locations, transactionDto.getOriginLocationId());
+                LocationPoint destinyLocation = requireBatchLocation(locations, transactionDto.getDestinyLocationId());
+                if (!existingVehicleIds.contains(transactionDto.getVehicleId())) {
+                    throw new ValidationException("Veículo não encontrado com ID: " + transactionDto.getVehicleId());
+                }
+                if (!existingDriverIds.contains(transactionDto.getDriverId())) {
+                    throw new ValidationException("Motorista não encontrado com ID: " + transactionDto.getDriverId());
+                }
+
+                boolean ongoing = transactionDto.getDispatchTime() != null && transactionDto.getArrivalTime() == null;
+                if (ongoing) {
+                    if (ongoingVehicleIds.contains(transactionDto.getVehicleId())
+                            || ongoingDriverIds.contains(transactionDto.getDriverId())) {
+                        throw new ValidationException(ONGOING_TRANSACTION_MESSAGE);
+                    }
+                    ongoingVehicleIds.add(transactionDto.getVehicleId());
+                    ongoingDriverIds.add(transactionDto.getDriverId());
+                }
+
+                Transaction transaction = Transaction.builder()
+                        .originLocation(locationRepository.getReferenceById(originLocation.id()))
+                        .destinyLocation(locationRepository.getReferenceById(destinyLocation.id()))
+                        .vehicle(vehicleRepository.getReferenceById(transactionDto.getVehicleId()))
+                        .driver(driverRepository.getReferenceById(transactionDto.getDriverId()))
+                        .dispatchTime(transactionDto.getDispatchTime())
+                        .arrivalTime(transactionDto.getArrivalTime())
+                        .cargoDescription(transactionDto.getCargoDescription())
+                        .distanceKm(GeoUtils.haversineKm(
+                                originLocation.latitude(), originLocation.longitude(),
+                                destinyLocation.latitude(), destinyLocation.longitude()))
+                        .build();
+                created.add(transaction);
+                return transaction;
+            }, Transaction::getId);
+            transactionOutbox.created(created);
+            transactionRollups.created(created);
+            return result;
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation("Erro ao salvar transações: ", e);
+        } catch (DataAccessException e) {
+            throw new SaveEntityException("Erro ao salvar transações: " + e.getMessage());
+        }
+    }
+
     @Transactional(readOnly = true)
     public Transaction findTransactionById(Long id) {
         return transactionRepository.findById(id)
@@ -71,41 +189,120 @@ public class TransactionService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Transaction> findAllTransactions(Pageable pageable) {
-        return transactionRepository.findAll(pageable);
+    public TransactionView findTransactionViewById(Long id) {
+        return transactionRepository.findViewById(id)
+                .orElseThrow(() -> new ValidationException(
+                        "Transação não encontrada com ID: " + id
+                ));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TransactionView> findAllTransactions(Pageable pageable) {
+        return transactionRepository.findAllViews(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionView> findTransactionsAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = CursorPage.fetchLimit(size);
+        List<TransactionView> rows = cursor == null
+                ? transactionRepository.findFirstKeysetPage(limit)
+                : transactionRepository.findKeysetPageAfter(cursor.id(), limit);
+        return CursorPage.of(rows, size, transaction -> new KeysetCursor(transaction.id(), null));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionView> searchTransactions(TransactionFilter filter, String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = CursorPage.fetchLimit(size);
+        boolean pending = filter.status() == TransactionStatus.PENDING;
+        LocalDateTime afterDispatch = cursor != null && !pending ? parseDispatchCursor(cursor) : null;
+        List<TransactionView> rows = transactionQueryRepository.search(filter, afterDispatch,
+                cursor != null ? cursor.id() : null, limit.getPageSize());
+        return CursorPage.of(rows, size, transaction -> new KeysetCursor(transaction.id(),
+                pending ? null : transaction.dispatchTime().toString()));
+    }
+
+    // Na busca, a parte do cursor após o id é o despacho do último item
+    private static LocalDateTime parseDispatchCursor(KeysetCursor cursor) {
+        if (cursor.name() == null) {
+            throw new ValidationException("Cursor inválido");
+        }
+
+        try {
+            return LocalDateTime.parse(cursor.name());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Cursor inválido", e);
+        }
+    }
+
+    // Distância percorrida quando a viagem tem trajeto; senão, a distância em linha reta entre os locais
     @Transactional(readOnly = true)
     public double calculateDistanceBetweenLocations(Long transactionId) {
+        OptionalDouble travelledKm = tripDistanceTracker.getTravelledKm(transactionId);
+        if (travelledKm.isPresent()) {
+            return travelledKm.getAsDouble();
+        }
+
         Transaction transaction = findTransactionById(transactionId);
-        Location originLocation = findLocationById(transaction.getOriginLocation().getId());
-        Location destinyLocation = findLocationById(transaction.getDestinyLocation().getId());
+        if (transaction.getTravelledKm() != null) {
+            return transaction.getTravelledKm();
+        }
+        if (transaction.getDistanceKm() != null) {
+            return transaction.getDistanceKm();
+        }
 
-        return calculateDistance(
+        Location originLocation = transaction.getOriginLocation();
+        Location destinyLocation = transaction.getDestinyLocation();
+        return GeoUtils.haversineKm(
                 originLocation.getLatitude(), originLocation.getLongitude(),
                 destinyLocation.getLatitude(), destinyLocation.getLongitude()
         );
     }
 
+    @Transactional(readOnly = true)
+    public List<TransactionDistanceDto> findDistances(Collection<Long> ids) {
+        if (ids.size() > MAX_DISTANCE_IDS) {
+            throw new ValidationException("Informe no máximo " + MAX_DISTANCE_IDS + " transações por consulta");
+        }
+
+        return transactionRepository.findDistancesByIds(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TransactionDistanceDto> findAllDistances(Pageable pageable) {
+        return transactionRepository.findAllDistances(pageable);
+    }
+
     @Transactional
-    public Transaction updateTransaction(Long id, TransactionDto transactionDto) {
+    public TransactionView updateTransaction(Long id, TransactionDto transactionDto) {
         Transaction existingTransaction = findTransactionById(id);
+        LocalDateTime previousDispatchTime = existingTransaction.getDispatchTime();
+        LocalDateTime previousArrivalTime = existingTransaction.getArrivalTime();
+        TransactionRollups.Snapshot previous = TransactionRollups.Snapshot.of(existingTransaction);
 
-        Location originLocation = findLocationById(transactionDto.getOriginLocationId());
-        Location destinyLocation = findLocationById(transactionDto.getDestinyLocationId());
-        Vehicle vehicle = findVehicleById(transactionDto.getVehicleId());
-        Driver driver = findDriverById(transactionDto.getDriverId());
+        LocationView originLocation = findLocationById(transactionDto.getOriginLocationId());
+        LocationView destinyLocation = findLocationById(transactionDto.getDestinyLocationId());
+        VehicleView vehicle = findVehicleById(transactionDto.getVehicleId());
+        DriverView driver = findDriverById(transactionDto.getDriverId());
 
-        existingTransaction.setOriginLocation(originLocation);
-        existingTransaction.setDestinyLocation(destinyLocation);
-        existingTransaction.setVehicle(vehicle);
-        existingTransaction.setDriver(driver);
+        existingTransaction.setOriginLocation(locationRepository.getReferenceById(originLocation.id()));
+        existingTransaction.setDestinyLocation(locationRepository.getReferenceById(destinyLocation.id()));
+        existingTransaction.setVehicle(vehicleRepository.getReferenceById(vehicle.id()));
+        existingTransaction.setDriver(driverRepository.getReferenceById(driver.id()));
         existingTransaction.setDispatchTime(transactionDto.getDispatchTime());
         existingTransaction.setArrivalTime(transactionDto.getArrivalTime());
         existingTransaction.setCargoDescription(transactionDto.getCargoDescription());
+        existingTransaction.setDistanceKm(calculateDistance(originLocation, destinyLocation));
 
         try {
-            return transactionRepository.save(existingTransaction);
+            Transaction saved = transactionRepository.saveAndFlush(existingTransaction);
+            transactionOutbox.updated(saved, previousDispatchTime, previousArrivalTime);
+            transactionRollups.updated(previous, saved);
+            return TransactionView.of(saved, originLocation.summary(), destinyLocation.summary(),
+                    vehicle.summary(), driver.summary());
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation("Erro ao atualizar transação: ", e);
         } catch (Exception e) {
             throw new SaveEntityException("Erro ao atualizar transação: " + e.getMessage());
         }
@@ -117,46 +314,60 @@ public class TransactionService {
 
         try {
             transactionRepository.delete(transaction);
+            transactionOutbox.deleted(transaction);
+            transactionRollups.deleted(transaction);
+            tripDistanceTracker.forget(id);
         } catch (Exception e) {
             throw new SaveEntityException("Erro ao deletar transação: " + e.getMessage());
         }
     }
 
-    private Location findLocationById(Long id) {
-        return locationRepository.findById(id)
+    // Consultas servidas pelo cache de entidades de referência
+    private LocationView findLocationById(Long id) {
+        return locationRepository.findViewById(id)
                 .orElseThrow(() -> new ValidationException(
                         "Local não encontrado com ID: " + id
                 ));
     }
 
-    private Vehicle findVehicleById(Long id) {
-        return vehicleRepository.findById(id)
+    private VehicleView findVehicleById(Long id) {
+        return vehicleRepository.findViewById(id)
                 .orElseThrow(() -> new ValidationException(
                         "Veículo não encontrado com ID: " + id
                 ));
     }
 
-    private Driver findDriverById(Long id) {
-        return driverRepository.findById(id)
+    private DriverView findDriverById(Long id) {
+        return driverRepository.findViewById(id)
                 .orElseThrow(() -> new ValidationException(
                         "Motorista não encontrado com ID: " + id
                 ));
     }
 
-    // Cálculo de distância (Haversine)
-    private double calculateDistance(
-            double lat1, double lon1,
-            double lat2, double lon2
-    ) {
-        final int earth_ratio = 6371; // Raio da Terra em km
+    private static LocationPoint requireBatchLocation(Map<Long, LocationPoint> locations, Long id) {
+        LocationPoint location = locations.get(id);
+        if (location == null) {
+            throw new ValidationException("Local não encontrado com ID: " + id);
+        }
+        return location;
+    }
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    // Os índices únicos parciais ux_transactions_ongoing_* barram uma segunda transação em andamento
+    private RuntimeException translateIntegrityViolation(String message, DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().startsWith(ONGOING_TRANSACTION_CONSTRAINT)) {
+                return new ValidationException(ONGOING_TRANSACTION_MESSAGE, e);
+            }
+        }
+        return new SaveEntityException(message + e.getMessage(), e);
+    }
 
-        return earth_ratio * c;
+    private double calculateDistance(LocationView originLocation, LocationView destinyLocation) {
+        return GeoUtils.haversineKm(
+                originLocation.latitude(), originLocation.longitude(),
+                destinyLocation.latitude(), destinyLocation.longitude()
+        );
     }
 }
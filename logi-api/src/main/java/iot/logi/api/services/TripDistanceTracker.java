@@ -0,0 +1,192 @@
+package iot.logi.api.services;
+
+import iot.logi.api.dtos.ReadingDto;
+import iot.logi.api.geo.TrackPoint;
+import iot.logi.api.geo.TripOdometer;
+import iot.logi.api.repository.VehiclePositionRepository;
+import iot.logi.api.repository.VehiclePositionRepository.OngoingTrip;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Distância percorrida das transações em andamento, vinda da ingestão e gravada em travelled_km periodicamente
+@Component
+public class TripDistanceTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TripDistanceTracker.class);
+
+    private static final String UPDATE_TRAVELLED_SQL = """
+            UPDATE transactions SET travelled_km = ?, travelled_until = ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VehiclePositionRepository vehiclePositionRepository;
+    private final ConcurrentHashMap<Long, Trip> trips = new ConcurrentHashMap<>();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final double minStepMeters;
+    private final double maxSpeedKmh;
+    private final Duration idleEviction;
+
+    public TripDistanceTracker(JdbcTemplate jdbcTemplate, VehiclePositionRepository vehiclePositionRepository,
+                               @Value("${logi.odometer.min-step-m:15}") double minStepMeters,
+                               @Value("${logi.odometer.max-speed-kmh:200}") double maxSpeedKmh,
+                               @Value("${logi.odometer.idle-eviction-ms:600000}") long idleEvictionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.vehiclePositionRepository = vehiclePositionRepository;
+        this.minStepMeters = minStepMeters;
+        this.maxSpeedKmh = maxSpeedKmh;
+        this.idleEviction = Duration.ofMillis(idleEvictionMs);
+    }
+
+    // Chamado pela ingestão depois do commit das posições, sempre pela mesma thread
+    public void accept(List<ReadingDto> readings, Map<Long, OngoingTrip> ongoingTrips) {
+        List<ReadingDto> ordered = readings.stream()
+                .filter(reading -> {
+                    OngoingTrip ongoing = ongoingTrips.get(reading.getDeviceId());
+                    return ongoing != null && ongoing.covers(reading);
+                })
+                .sorted(Comparator.comparing(ReadingDto::getTimestamp))
+                .toList();
+        for (ReadingDto reading : ordered) {
+            OngoingTrip ongoing = ongoingTrips.get(reading.getDeviceId());
+            TrackPoint point = new TrackPoint(reading.getTimestamp(), reading.getLatitude(), reading.getLongitude());
+            while (!record(trips.computeIfAbsent(ongoing.transactionId(), id -> restore(ongoing)), point)) {
+                // Removida pelo checkpoint por inatividade enquanto a posição chegava: recria a partir do banco
+            }
+        }
+    }
+
+    private boolean record(Trip trip, TrackPoint point) {
+        trip.lock.lock();
+        try {
+            if (trip.evicted) {
+                return false;
+            }
+            if (trip.odometer.accept(point)) {
+                trip.dirty = true;
+            }
+            trip.lastSeen = System.nanoTime();
+            return true;
+        } finally {
+            trip.lock.unlock();
+        }
+    }
+
+    public OptionalDouble getTravelledKm(Long transactionId) {
+        Trip trip = trips.get(transactionId);
+        if (trip == null) {
+            return OptionalDouble.empty();
+        }
+
+        trip.lock.lock();
+        try {
+            return OptionalDouble.of(trip.odometer.getTravelledKm());
+        } finally {
+            trip.lock.unlock();
+        }
+    }
+
+    public void forget(Long transactionId) {
+        trips.remove(transactionId);
+    }
+
+    @Scheduled(fixedDelayString = "${logi.odometer.checkpoint-interval-ms:5000}")
+    public void checkpoint() {
+        if (trips.isEmpty()) {
+            return;
+        }
+
+        checkpointLock.lock();
+        try {
+            List<Object[]> updates = new ArrayList<>();
+            List<Trip> written = new ArrayList<>();
+            long idleBefore = System.nanoTime() - idleEviction.toNanos();
+            for (Map.Entry<Long, Trip> entry : trips.entrySet()) {
+                Trip trip = entry.getValue();
+                trip.lock.lock();
+                try {
+                    if (trip.dirty) {
+                        updates.add(new Object[]{trip.odometer.getTravelledKm(), trip.odometer.getAnchorTime(),
+                                entry.getKey()});
+                        written.add(trip);
+                        trip.dirty = false;
+                    } else if (trip.lastSeen - idleBefore < 0) {
+                        // Sem posições há muito tempo: a viagem terminou ou o dispositivo parou de enviar
+                        trip.evicted = true;
+                        trips.remove(entry.getKey(), trip);
+                    }
+                } finally {
+                    trip.lock.unlock();
+                }
+            }
+            if (updates.isEmpty()) {
+                return;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_TRAVELLED_SQL, updates);
+            } catch (DataAccessException e) {
+                log.error("Error checkpointing travelled distance of {} transactions", updates.size(), e);
+                written.forEach(trip -> {
+                    trip.lock.lock();
+                    try {
+                        trip.dirty = true;
+                    } finally {
+                        trip.lock.unlock();
+                    }
+                });
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    // Retoma do último checkpoint e reprocessa as posições gravadas depois dele
+    private Trip restore(OngoingTrip ongoing) {
+        double travelledKm = ongoing.travelledKm() != null ? ongoing.travelledKm() : 0;
+        LocalDateTime from = ongoing.travelledUntil() != null ? ongoing.travelledUntil() : ongoing.dispatchTime();
+        TripOdometer odometer = new TripOdometer(travelledKm, minStepMeters, maxSpeedKmh);
+        List<TrackPoint> replay = vehiclePositionRepository.findTrackSince(ongoing.transactionId(), from);
+        boolean changed = false;
+        for (TrackPoint point : replay) {
+            changed |= odometer.accept(point);
+        }
+        return new Trip(odometer, changed);
+    }
+
+    // ReentrantLock em vez de synchronized: no perfil virtual-threads um monitor prende a carrier thread (JDK 23)
+    private static final class Trip {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TripOdometer odometer;
+        private boolean dirty;
+        private boolean evicted;
+        private long lastSeen = System.nanoTime();
+
+        Trip(TripOdometer odometer, boolean dirty) {
+            this.odometer = odometer;
+            this.dirty = dirty;
+        }
+    }
+}
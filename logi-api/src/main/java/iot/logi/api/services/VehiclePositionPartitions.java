@@ -0,0 +1,58 @@
+package iot.logi.api.services;
+
+import iot.logi.api.repository.VehiclePositionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+// Mantém as partições mensais de vehicle_positions criadas com antecedência; o restante cai na partição default.
+// Roda na inicialização, depois do schema-postgresql.sql e antes do writer de telemetria (@DependsOn em
+// TelemetryIngestService), para que o mês corrente já exista quando as primeiras leituras chegarem
+@Component
+@DependsOnDatabaseInitialization
+public class VehiclePositionPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(VehiclePositionPartitions.class);
+
+    private final VehiclePositionRepository vehiclePositionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitionsAhead;
+
+    public VehiclePositionPartitions(VehiclePositionRepository vehiclePositionRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${logi.positions.partitions-ahead:2}") int partitionsAhead) {
+        this.vehiclePositionRepository = vehiclePositionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @PostConstruct
+    @Scheduled(cron = "${logi.positions.partition-cron:0 0 3 * * *}", zone = "UTC")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            // Uma falha num mês não impede os seguintes; o próximo ciclo tenta de novo
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!vehiclePositionRepository.partitionExists(month)) {
+                        vehiclePositionRepository.createMonthlyPartition(month);
+                        log.info("Created vehicle_positions partition for {}", month);
+                    }
+                });
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Could not create vehicle_positions partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+}
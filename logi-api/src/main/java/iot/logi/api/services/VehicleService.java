@@ -1,48 +1,88 @@
 package iot.logi.api.services;
 
+import iot.logi.api.dtos.BatchResult;
+import iot.logi.api.dtos.CursorPage;
+import iot.logi.api.dtos.DeviceView;
+import iot.logi.api.dtos.KeysetCursor;
+import iot.logi.api.dtos.SummaryView;
 import iot.logi.api.dtos.VehicleDto;
+import iot.logi.api.dtos.VehicleView;
 import iot.logi.api.exceptions.SaveEntityException;
-import iot.logi.api.models.Device;
+import iot.logi.api.exceptions.ValidationException;
 import iot.logi.api.models.Vehicle;
+import iot.logi.api.repository.BatchInserter;
 import iot.logi.api.repository.DeviceRepository;
 import iot.logi.api.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Set;
+
 @Service
 public class VehicleService {
     private final VehicleRepository vehicleRepository;
     private final DeviceRepository deviceRepository;
+    private final BatchInserter batchInserter;
 
     @Autowired
-    public VehicleService(VehicleRepository vehicleRepository, DeviceRepository deviceRepository) {
+    public VehicleService(VehicleRepository vehicleRepository, DeviceRepository deviceRepository,
+                          BatchInserter batchInserter) {
         this.vehicleRepository = vehicleRepository;
         this.deviceRepository = deviceRepository;
+        this.batchInserter = batchInserter;
     }
 
     @Transactional
-    public Vehicle createVehicle(VehicleDto vehicleDto) {
+    public VehicleView createVehicle(VehicleDto vehicleDto) {
         Vehicle vehicle = Vehicle.builder()
                 .name(vehicleDto.getName())
                 .plate(vehicleDto.getPlate())
                 .build();
 
+        SummaryView device = null;
         if (vehicleDto.getDeviceId() != null) {
-            Device device = deviceRepository.findById(vehicleDto.getDeviceId())
-                    .orElseThrow(() -> new IllegalArgumentException("Dispositivo não encontrado"));
-            vehicle.setDevice(device);
+            device = findDeviceById(vehicleDto.getDeviceId()).summary();
+            vehicle.setDevice(deviceRepository.getReferenceById(device.id()));
         }
 
         try {
-            return vehicleRepository.save(vehicle);
+            return VehicleView.of(vehicleRepository.save(vehicle), device);
         } catch (Exception e) {
             throw new SaveEntityException("Erro ao salvar veículo: " + e.getMessage());
         }
     }
 
+    @Transactional
+    public BatchResult createVehicles(List<VehicleDto> vehicleDtos) {
+        batchInserter.checkSize(vehicleDtos);
+        Set<Long> requestedDeviceIds = BatchInserter.idsOf(vehicleDtos, VehicleDto::getDeviceId);
+        Set<Long> deviceIds = requestedDeviceIds.isEmpty()
+                ? Set.of()
+                : deviceRepository.findExistingIds(requestedDeviceIds);
+
+        try {
+            return batchInserter.insert(vehicleDtos, vehicleDto -> {
+                if (!deviceIds.contains(vehicleDto.getDeviceId())) {
+                    throw new ValidationException("Dispositivo não encontrado com ID: " + vehicleDto.getDeviceId());
+                }
+
+                return Vehicle.builder()
+                        .name(vehicleDto.getName())
+                        .plate(vehicleDto.getPlate())
+                        .device(deviceRepository.getReferenceById(vehicleDto.getDeviceId()))
+                        .build();
+            }, Vehicle::getId);
+        } catch (DataAccessException e) {
+            throw new SaveEntityException("Erro ao salvar veículos: " + e.getMessage());
+        }
+    }
+
     @Transactional(readOnly = true)
     public Vehicle findVehicleById(Long id) {
         return vehicleRepository.findById(id)
@@ -50,26 +90,44 @@ public class VehicleService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Vehicle> findAllVehicles(Pageable pageable) {
-        return vehicleRepository.findAll(pageable);
+    public VehicleView findVehicleViewById(Long id) {
+        return vehicleRepository.findViewById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Veículo não encontrado com ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<VehicleView> findAllVehicles(Pageable pageable) {
+        return vehicleRepository.findAllViews(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<VehicleView> findVehiclesAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = CursorPage.fetchLimit(size);
+        List<VehicleView> rows = cursor == null
+                ? vehicleRepository.findFirstKeysetPage(limit)
+                : vehicleRepository.findKeysetPageAfter(cursor.name(), cursor.id(), limit);
+        return CursorPage.of(rows, size, vehicle -> new KeysetCursor(vehicle.id(), vehicle.name()));
     }
 
     @Transactional
-    public Vehicle updateVehicle(Long id, Vehicle newVehicle) {
+    @CacheEvict(cacheNames = "vehicles", key = "#id")
+    public VehicleView updateVehicle(Long id, Vehicle newVehicle) {
         Vehicle vehicle = findVehicleById(id);
+        SummaryView device = VehicleView.from(vehicle).device();
         vehicle.setName(newVehicle.getName());
         vehicle.setPlate(newVehicle.getPlate());
 
         if (newVehicle.getDevice().getId() != null) {
-            Device device = deviceRepository.findById(newVehicle.getDevice().getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Dispositivo não encontrado"));
-            vehicle.setDevice(device);
+            device = findDeviceById(newVehicle.getDevice().getId()).summary();
+            vehicle.setDevice(deviceRepository.getReferenceById(device.id()));
         }
 
-        return vehicleRepository.save(vehicle);
+        return VehicleView.of(vehicleRepository.save(vehicle), device);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = "vehicles", key = "#id")
     public void deleteVehicle(Long id) {
         Vehicle vehicle = findVehicleById(id);
 
@@ -79,4 +137,9 @@ public class VehicleService {
             throw new SaveEntityException("Erro ao deletar veículo: " + e.getMessage());
         }
     }
+
+    private DeviceView findDeviceById(Long id) {
+        return deviceRepository.findViewById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Dispositivo não encontrado"));
+    }
 }
@@ -0,0 +1,101 @@
+-- Executado após o Hibernate atualizar o schema (spring.jpa.defer-datasource-initialization)
+
+-- Antes dos índices únicos: um banco anterior a eles pode ter mais de uma transação em andamento para o mesmo
+-- veículo ou motorista, e o CREATE UNIQUE INDEX abortaria a subida. Cada duplicata é encerrada no despacho da
+-- seguinte (o veículo ou motorista já tinha saído de novo) e só a mais recente continua em andamento. Sem
+-- duplicatas nada é alterado. Esses encerramentos não geram evento na outbox e entram nos rollups pelo backfill,
+-- que ainda não rodou num banco assim (a subida falhava nos índices).
+UPDATE transactions t
+SET arrival_time = d.next_dispatch
+FROM (SELECT id, LEAD(dispatch_time) OVER (PARTITION BY vehicle ORDER BY dispatch_time, id) AS next_dispatch
+      FROM transactions
+      WHERE dispatch_time IS NOT NULL AND arrival_time IS NULL) d
+WHERE t.id = d.id AND d.next_dispatch IS NOT NULL;
+
+UPDATE transactions t
+SET arrival_time = d.next_dispatch
+FROM (SELECT id, LEAD(dispatch_time) OVER (PARTITION BY driver ORDER BY dispatch_time, id) AS next_dispatch
+      FROM transactions
+      WHERE dispatch_time IS NOT NULL AND arrival_time IS NULL) d
+WHERE t.id = d.id AND d.next_dispatch IS NOT NULL;
+
+-- Uma única transação em andamento por veículo e por motorista
+CREATE UNIQUE INDEX IF NOT EXISTS ux_transactions_ongoing_vehicle
+    ON transactions (vehicle)
+    WHERE dispatch_time IS NOT NULL AND arrival_time IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_transactions_ongoing_driver
+    ON transactions (driver)
+    WHERE dispatch_time IS NOT NULL AND arrival_time IS NULL;
+
+-- Filtros do GET /transactions/search (TransactionQueryRepository): a busca pagina por (dispatch_time, id), então
+-- cada filtro tem um índice com a coluna filtrada à frente e essa ordem em seguida
+CREATE INDEX IF NOT EXISTS ix_transactions_dispatch_id ON transactions (dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_vehicle_dispatch_id ON transactions (vehicle, dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_driver_dispatch_id ON transactions (driver, dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_origin_dispatch_id ON transactions (origin_location, dispatch_time, id);
+CREATE INDEX IF NOT EXISTS ix_transactions_destiny_dispatch_id ON transactions (destiny_location, dispatch_time, id);
+
+-- Status: os predicados são os mesmos das condições montadas na busca; pendentes não têm despacho e paginam pelo id
+CREATE INDEX IF NOT EXISTS ix_transactions_pending ON transactions (id) WHERE dispatch_time IS NULL;
+CREATE INDEX IF NOT EXISTS ix_transactions_ongoing_dispatch_id
+    ON transactions (dispatch_time, id)
+    WHERE dispatch_time IS NOT NULL AND arrival_time IS NULL;
+CREATE INDEX IF NOT EXISTS ix_transactions_completed_dispatch_id
+    ON transactions (dispatch_time, id)
+    WHERE arrival_time IS NOT NULL;
+
+-- Transações ainda sem distância (TransactionDistanceMigration)
+CREATE INDEX IF NOT EXISTS ix_transactions_missing_distance ON transactions (id) WHERE distance_km IS NULL;
+
+-- Paginação por keyset (name, id) nas listagens
+CREATE INDEX IF NOT EXISTS ix_devices_name_id ON devices (name, id);
+CREATE INDEX IF NOT EXISTS ix_drivers_name_id ON drivers (name, id);
+CREATE INDEX IF NOT EXISTS ix_locations_name_id ON locations (name, id);
+CREATE INDEX IF NOT EXISTS ix_vehicles_name_id ON vehicles (name, id);
+
+-- Trajeto (breadcrumbs) das transações em andamento, particionado por mês (VehiclePositionPartitions cria as partições)
+CREATE TABLE IF NOT EXISTS vehicle_positions (
+    transaction_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    recorded_at TIMESTAMP NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+-- Recebe leituras fora das partições mensais já criadas; VehiclePositionPartitions move essas linhas para a partição
+-- do mês quando ela é criada
+CREATE TABLE IF NOT EXISTS vehicle_positions_default PARTITION OF vehicle_positions DEFAULT;
+
+CREATE INDEX IF NOT EXISTS ix_vehicle_positions_transaction ON vehicle_positions (transaction_id, recorded_at);
+CREATE INDEX IF NOT EXISTS ix_vehicle_positions_vehicle ON vehicle_positions (vehicle_id, recorded_at);
+
+-- Busca do veículo pelo dispositivo na ingestão de leituras
+CREATE INDEX IF NOT EXISTS ix_vehicles_device ON vehicles (device);
+
+-- Agregados diários por local de origem, veículo e motorista (TransactionRollups / ReportService)
+CREATE TABLE IF NOT EXISTS transaction_daily_rollups (
+    dimension VARCHAR(16) NOT NULL,
+    dimension_id BIGINT NOT NULL,
+    dispatch_day DATE NOT NULL,
+    transactions BIGINT NOT NULL,
+    completed BIGINT NOT NULL,
+    duration_seconds BIGINT NOT NULL,
+    distance_km DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (dimension, dimension_id, dispatch_day)
+);
+
+CREATE INDEX IF NOT EXISTS ix_transaction_daily_rollups_day ON transaction_daily_rollups (dimension, dispatch_day);
+
+-- Registra a conclusão do backfill dos rollups (ReportService); sem a linha, o backfill roda de novo
+CREATE TABLE IF NOT EXISTS transaction_rollup_state (
+    id INT PRIMARY KEY,
+    backfilled_at TIMESTAMP NOT NULL
+);
+
+-- IDs por sequence (allocationSize = 50): a sequence nunca fica atrás dos IDs já gerados por IDENTITY
+SELECT setval('devices_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM devices), (SELECT last_value FROM devices_seq)));
+SELECT setval('drivers_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM drivers), (SELECT last_value FROM drivers_seq)));
+SELECT setval('locations_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM locations), (SELECT last_value FROM locations_seq)));
+SELECT setval('transactions_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM transactions), (SELECT last_value FROM transactions_seq)));
+SELECT setval('vehicles_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM vehicles), (SELECT last_value FROM vehicles_seq)));
@@ -0,0 +1,81 @@
+package iot.logi.api.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackSimplifierTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 10, 1, 8, 0);
+
+    // Zigue-zague de ~100 m de amplitude avançando para o leste
+    private static List<TrackPoint> zigzag(int size) {
+        List<TrackPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double latitude = -25.43 + (i % 20 < 10 ? i % 10 : 10 - i % 10) * 0.0001;
+            points.add(new TrackPoint(START.plusSeconds(i), latitude, -49.27 + i * 0.0001));
+        }
+        return points;
+    }
+
+    private static List<TrackPoint> straightLine(int size) {
+        List<TrackPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(new TrackPoint(START.plusSeconds(i), -25.43, -49.27 + i * 0.0001));
+        }
+        return points;
+    }
+
+    @Test
+    void lttbKeepsEndpointsAndLimitsSize() {
+        List<TrackPoint> track = zigzag(10_000);
+
+        List<TrackPoint> sampled = TrackSimplifier.lttb(track, 100);
+
+        assertThat(sampled).hasSize(100);
+        assertThat(sampled.getFirst()).isEqualTo(track.getFirst());
+        assertThat(sampled.getLast()).isEqualTo(track.getLast());
+        assertThat(sampled).isSortedAccordingTo(Comparator.comparing(TrackPoint::recordedAt));
+    }
+
+    @Test
+    void lttbReturnsShortTracksUnchanged() {
+        List<TrackPoint> track = zigzag(50);
+
+        assertThat(TrackSimplifier.lttb(track, 100)).isSameAs(track);
+    }
+
+    @Test
+    void lttbBelowThreePointsKeepsOnlyEndpoints() {
+        List<TrackPoint> track = zigzag(50);
+
+        assertThat(TrackSimplifier.lttb(track, 2)).containsExactly(track.getFirst(), track.getLast());
+        assertThat(TrackSimplifier.lttb(track, 1)).containsExactly(track.getFirst());
+    }
+
+    @Test
+    void douglasPeuckerKeepsEndpointsOfStraightLine() {
+        List<TrackPoint> track = straightLine(1_000);
+
+        assertThat(TrackSimplifier.douglasPeucker(track, 5)).containsExactly(track.getFirst(), track.getLast());
+    }
+
+    @Test
+    void douglasPeuckerKeepsDeviationsAboveTolerance() {
+        List<TrackPoint> track = zigzag(1_000);
+
+        List<TrackPoint> fine = TrackSimplifier.douglasPeucker(track, 5);
+        List<TrackPoint> coarse = TrackSimplifier.douglasPeucker(track, 1_000);
+
+        assertThat(fine.getFirst()).isEqualTo(track.getFirst());
+        assertThat(fine.getLast()).isEqualTo(track.getLast());
+        // Os vértices do zigue-zague (a cada 10 pontos) se afastam ~100 m da reta entre os vizinhos
+        assertThat(fine).hasSizeGreaterThanOrEqualTo(100).hasSizeLessThan(track.size());
+        assertThat(coarse).containsExactly(track.getFirst(), track.getLast());
+    }
+}
@@ -0,0 +1,113 @@
+package iot.logi.api.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TripOdometerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 10, 1, 8, 0);
+    private static final double MIN_STEP_METERS = 15;
+    private static final double MAX_SPEED_KMH = 200;
+
+    // ~111 m para o norte a cada 10 s (~40 km/h)
+    private static List<TrackPoint> straightTrack(int size) {
+        List<TrackPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(new TrackPoint(START.plusSeconds(10L * i), -25.43 + 0.001 * i, -49.27));
+        }
+        return points;
+    }
+
+    private static double replay(TripOdometer odometer, List<TrackPoint> points) {
+        points.forEach(odometer::accept);
+        return odometer.getTravelledKm();
+    }
+
+    @Test
+    void sumsStepsAlongTheTrack() {
+        List<TrackPoint> track = straightTrack(11);
+        TrackPoint first = track.getFirst();
+        TrackPoint last = track.getLast();
+
+        double travelledKm = replay(new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH), track);
+
+        assertThat(travelledKm).isCloseTo(GeoUtils.haversineKm(first.latitude(), first.longitude(),
+                last.latitude(), last.longitude()), within(1e-6));
+    }
+
+    @Test
+    void resumingFromCheckpointDoesNotDoubleCount() {
+        List<TrackPoint> track = straightTrack(11);
+        double expectedKm = replay(new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH), track);
+
+        // Checkpoint no meio da viagem, como o TripDistanceTracker grava travelled_km e travelled_until
+        TripOdometer beforeRestart = new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH);
+        double checkpointKm = replay(beforeRestart, track.subList(0, 6));
+        LocalDateTime checkpointAt = beforeRestart.getAnchorTime();
+
+        // A retomada reprocessa o trajeto a partir da âncora: o ponto dela já contado vira só a nova âncora
+        TripOdometer afterRestart = new TripOdometer(checkpointKm, MIN_STEP_METERS, MAX_SPEED_KMH);
+        double resumedKm = replay(afterRestart, track.stream()
+                .filter(point -> !point.recordedAt().isBefore(checkpointAt))
+                .toList());
+
+        assertThat(resumedKm).isCloseTo(expectedKm, within(1e-9));
+    }
+
+    @Test
+    void ignoresRepeatedAndOutOfOrderPositions() {
+        List<TrackPoint> track = straightTrack(3);
+        TripOdometer odometer = new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH);
+        double travelledKm = replay(odometer, track);
+
+        assertThat(odometer.accept(track.getLast())).isFalse();
+        assertThat(odometer.accept(track.getFirst())).isFalse();
+        assertThat(odometer.getTravelledKm()).isEqualTo(travelledKm);
+    }
+
+    @Test
+    void ignoresJitterBelowMinimumStep() {
+        TripOdometer odometer = new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH);
+        for (int i = 0; i < 20; i++) {
+            // ~5 m para um lado e para o outro, parado
+            double offset = i % 2 == 0 ? 0 : 0.00005;
+            odometer.accept(new TrackPoint(START.plusSeconds(10L * i), -25.43 + offset, -49.27));
+        }
+
+        assertThat(odometer.getTravelledKm()).isZero();
+    }
+
+    @Test
+    void discardsSingleSpeedOutlier() {
+        List<TrackPoint> track = new ArrayList<>(straightTrack(5));
+        // Salto de ~11 km em 10 s no meio do trajeto
+        track.add(3, new TrackPoint(START.plusSeconds(25), -25.33, -49.27));
+        List<TrackPoint> clean = straightTrack(5);
+
+        double withOutlier = replay(new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH), track);
+        double withoutOutlier = replay(new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH), clean);
+
+        assertThat(withOutlier).isCloseTo(withoutOutlier, within(1e-9));
+    }
+
+    @Test
+    void reanchorsAfterConsecutiveOutliers() {
+        TripOdometer odometer = new TripOdometer(0, MIN_STEP_METERS, MAX_SPEED_KMH);
+        odometer.accept(new TrackPoint(START, -25.43, -49.27));
+        // A âncora é que estava errada: depois de três saltos seguidos o trajeto continua do novo ponto
+        for (int i = 1; i <= 3; i++) {
+            assertThat(odometer.accept(new TrackPoint(START.plusSeconds(i), -25.0 + 0.0001 * i, -49.27))).isFalse();
+        }
+
+        assertThat(odometer.getAnchorTime()).isEqualTo(START.plusSeconds(3));
+        assertThat(odometer.getTravelledKm()).isZero();
+        assertThat(odometer.accept(new TrackPoint(START.plusSeconds(13), -25.0 + 0.0011, -49.27))).isTrue();
+        assertThat(odometer.getTravelledKm()).isCloseTo(0.089, within(0.001));
+    }
+}
@@ -0,0 +1,137 @@
+package iot.logi.api.live;
+
+import iot.logi.api.models.enums.DeviceStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveSubscriberTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 10, 1, 8, 0);
+
+    private final RecordingEmitter emitter = new RecordingEmitter();
+
+    @Test
+    void coalescesUpdatesOfSameDevice() throws Exception {
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, LiveFilter.of(null, null, null), 10);
+
+        LiveSubscriber.Offer first = subscriber.offer(new DeviceUpdate(1L, 10L, null, DeviceStatus.ACTIVE, null));
+        LiveSubscriber.Offer second = subscriber.offer(DeviceUpdate.tracking(1L, NOW));
+
+        assertThat(first.schedule()).isTrue();
+        assertThat(first.coalesced()).isFalse();
+        // O envio já está agendado; a segunda atualização só se funde à pendente
+        assertThat(second.schedule()).isFalse();
+        assertThat(second.coalesced()).isTrue();
+
+        subscriber.drain();
+
+        assertThat(emitter.updates()).containsExactly(new DeviceUpdate(1L, 10L, null, DeviceStatus.ACTIVE, NOW));
+        assertThat(emitter.resyncs()).isZero();
+    }
+
+    @Test
+    void coalescesSameDeviceWhenBufferIsFull() throws Exception {
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, LiveFilter.of(null, null, null), 2);
+        subscriber.offer(DeviceUpdate.tracking(1L, NOW));
+        subscriber.offer(DeviceUpdate.tracking(2L, NOW));
+
+        LiveSubscriber.Offer offer = subscriber.offer(DeviceUpdate.tracking(2L, NOW.plusMinutes(1)));
+
+        assertThat(offer.coalesced()).isTrue();
+        assertThat(offer.overflowed()).isFalse();
+
+        subscriber.drain();
+
+        assertThat(emitter.updates()).containsExactly(
+                DeviceUpdate.tracking(1L, NOW),
+                DeviceUpdate.tracking(2L, NOW.plusMinutes(1))
+        );
+        assertThat(emitter.resyncs()).isZero();
+    }
+
+    @Test
+    void overflowDropsBufferAndSendsResync() throws Exception {
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, LiveFilter.of(null, null, null), 2);
+        subscriber.offer(DeviceUpdate.tracking(1L, NOW));
+        subscriber.offer(DeviceUpdate.tracking(2L, NOW));
+
+        LiveSubscriber.Offer offer = subscriber.offer(DeviceUpdate.tracking(3L, NOW));
+
+        assertThat(offer.overflowed()).isTrue();
+
+        subscriber.drain();
+
+        assertThat(emitter.resyncs()).isEqualTo(1);
+        assertThat(emitter.updates()).isEmpty();
+    }
+
+    @Test
+    void heartbeatIsSkippedWhenThereAreUpdates() throws Exception {
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, LiveFilter.of(null, null, null), 10);
+        subscriber.offer(DeviceUpdate.tracking(1L, NOW));
+        subscriber.requestHeartbeat();
+
+        subscriber.drain();
+
+        assertThat(emitter.updates()).containsExactly(DeviceUpdate.tracking(1L, NOW));
+        assertThat(emitter.heartbeats()).isZero();
+
+        assertThat(subscriber.requestHeartbeat()).isTrue();
+        subscriber.drain();
+
+        assertThat(emitter.heartbeats()).isEqualTo(1);
+    }
+
+    @Test
+    void filterMatchesDeviceByVehicleAndLocation() {
+        LiveFilter byVehicle = LiveFilter.of(null, List.of(7L), null);
+        LiveFilter byLocation = LiveFilter.of(null, null, List.of(10L));
+
+        assertThat(byVehicle.matches(new DeviceUpdate(1L, null, 7L, null, NOW))).isTrue();
+        assertThat(byVehicle.matches(DeviceUpdate.tracking(1L, NOW))).isFalse();
+        assertThat(byLocation.matches(new DeviceUpdate(1L, 10L, null, null, NOW))).isTrue();
+        assertThat(byLocation.matches(new DeviceUpdate(1L, 11L, 7L, null, NOW))).isFalse();
+    }
+
+    // Guarda os eventos em memória em vez de escrever na resposta HTTP
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build());
+        }
+
+        List<LiveUpdate> updates() {
+            return events.stream()
+                    .flatMap(Set::stream)
+                    .map(DataWithMediaType::getData)
+                    .filter(LiveUpdate.class::isInstance)
+                    .map(LiveUpdate.class::cast)
+                    .toList();
+        }
+
+        long resyncs() {
+            return count("event:resync");
+        }
+
+        long heartbeats() {
+            return count(":heartbeat");
+        }
+
+        private long count(String marker) {
+            return events.stream()
+                    .filter(event -> event.stream().anyMatch(data -> String.valueOf(data.getData()).contains(marker)))
+                    .count();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package iot.logi.api.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DbTimeDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    private DataSource dataSource() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(statement.executeUpdate()).thenReturn(1);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        return new DbTimeDataSource(target);
+    }
+
+    @Test
+    void countsJdbcTemplateStatementsOfCurrentRequest() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource());
+
+        RequestDbTime.start();
+        try {
+            assertThat(jdbcTemplate.query("SELECT id FROM t WHERE id > ?", (rs, rowNum) -> rs.getLong(1), 0))
+                    .containsExactly(1L, 2L);
+            jdbcTemplate.update("UPDATE t SET x = ?", 1);
+        } finally {
+            RequestDbTime.Accumulator accumulator = RequestDbTime.stop();
+            assertThat(accumulator.statements).isEqualTo(2);
+            assertThat(accumulator.nanos).isPositive();
+        }
+    }
+
+    @Test
+    void ignoresWorkOutsideRequests() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource());
+
+        jdbcTemplate.update("UPDATE t SET x = ?", 1);
+
+        assertThat(RequestDbTime.isActive()).isFalse();
+    }
+
+    @Test
+    void closesTargetPool() throws Exception {
+        HikariLike pool = mock(HikariLike.class);
+
+        new DbTimeDataSource(pool).close();
+
+        verify(pool).close();
+    }
+
+    // O HikariDataSource é um DataSource que se fecha no shutdown
+    private interface HikariLike extends DataSource, AutoCloseable {
+    }
+}
@@ -0,0 +1,60 @@
+package iot.logi.api.services;
+
+import iot.logi.api.dtos.DeviceView;
+import iot.logi.api.models.enums.DeviceStatus;
+import iot.logi.api.models.enums.DeviceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DeviceTrackingWriteBehindTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 10, 1, 8, 0);
+
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager("devices");
+    private final DeviceTrackingWriteBehind writeBehind = new DeviceTrackingWriteBehind(
+            mock(JdbcTemplate.class), cacheManager, mock(ApplicationEventPublisher.class));
+
+    private static DeviceView device(long id, LocalDateTime lastTracking) {
+        return new DeviceView(id, "Sensor " + id, 10L, "Doca", DeviceType.TRANSPORT, DeviceStatus.ACTIVE,
+                lastTracking);
+    }
+
+    @Test
+    void flushUpdatesCachedDeviceInsteadOfEvicting() {
+        Cache devices = cacheManager.getCache("devices");
+        devices.put(1L, device(1L, NOW));
+        writeBehind.record(1L, NOW.plusSeconds(1));
+
+        writeBehind.flush();
+
+        assertThat(devices.get(1L, DeviceView.class)).isEqualTo(device(1L, NOW.plusSeconds(1)));
+    }
+
+    @Test
+    void flushKeepsNewerCachedTracking() {
+        Cache devices = cacheManager.getCache("devices");
+        devices.put(1L, device(1L, NOW));
+        writeBehind.record(1L, NOW.minusSeconds(1));
+
+        writeBehind.flush();
+
+        assertThat(devices.get(1L, DeviceView.class)).isEqualTo(device(1L, NOW));
+    }
+
+    @Test
+    void flushDoesNotCacheUnknownDevices() {
+        writeBehind.record(2L, NOW);
+
+        writeBehind.flush();
+
+        assertThat(cacheManager.getCache("devices").get(2L)).isNull();
+    }
+}
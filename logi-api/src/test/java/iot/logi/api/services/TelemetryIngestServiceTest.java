@@ -0,0 +1,76 @@
+package iot.logi.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import iot.logi.api.dtos.ReadingDto;
+import iot.logi.api.exceptions.IngestQueueFullException;
+import iot.logi.api.exceptions.ValidationException;
+import iot.logi.api.validators.ObjectsValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TelemetryIngestServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjectsValidator<ReadingDto> validator = mock(ObjectsValidator.class);
+    private final TelemetryIngestService service = new TelemetryIngestService(null, null,
+            new ObjectMapper().findAndRegisterModules(), validator, null, null, null, null, null);
+
+    // Sem @PostConstruct o writer não roda e as leituras aceitas ficam pendentes na fila
+    TelemetryIngestServiceTest() {
+        when(validator.validate(any())).thenAnswer(invocation -> {
+            ReadingDto reading = invocation.getArgument(0);
+            return reading.getLatitude() == null ? Set.of("Latitude da leitura é obrigatória") : Set.of();
+        });
+        ReflectionTestUtils.setField(service, "queueCapacity", 5);
+        ReflectionTestUtils.setField(service, "jdbcBatchSize", 2);
+    }
+
+    private static InputStream ndjson(int readings) {
+        String body = IntStream.range(0, readings)
+                .mapToObj(i -> "{\"deviceId\":" + (i + 1) + ",\"timestamp\":\"2024-10-01T08:00:00\","
+                        + "\"latitude\":-25.43,\"longitude\":-49.27}")
+                .collect(Collectors.joining("\n"));
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void acceptsBodyWithinCapacity() {
+        assertThat(service.enqueueNdjson(ndjson(5))).isEqualTo(5);
+        assertThat(service.getPendingReadings()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsBodyLargerThanRemainingCapacity() {
+        service.enqueueNdjson(ndjson(3));
+
+        assertThatThrownBy(() -> service.enqueueNdjson(ndjson(3))).isInstanceOf(IngestQueueFullException.class);
+        // O lote reservado antes da recusa é devolvido
+        assertThat(service.getPendingReadings()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidReadingReleasesReservedChunks() {
+        String body = "{\"deviceId\":1,\"timestamp\":\"2024-10-01T08:00:00\",\"latitude\":-25.43}\n"
+                + "{\"deviceId\":2,\"timestamp\":\"2024-10-01T08:00:00\",\"latitude\":-25.43}\n"
+                + "{\"deviceId\":3,\"timestamp\":\"2024-10-01T08:00:00\"}";
+        InputStream input = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> service.enqueueNdjson(input))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("Leitura 2 inválida");
+        assertThat(service.getPendingReadings()).isZero();
+    }
+}
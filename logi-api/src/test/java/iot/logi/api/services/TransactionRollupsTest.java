@@ -0,0 +1,151 @@
+package iot.logi.api.services;
+
+import iot.logi.api.models.Driver;
+import iot.logi.api.models.Location;
+import iot.logi.api.models.Transaction;
+import iot.logi.api.models.Vehicle;
+import iot.logi.api.repository.TransactionRollupRepository;
+import iot.logi.api.repository.TransactionRollupRepository.Delta;
+import iot.logi.api.repository.TransactionRollupRepository.DistanceChange;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static iot.logi.api.models.enums.RollupDimension.DRIVER;
+import static iot.logi.api.models.enums.RollupDimension.LOCATION;
+import static iot.logi.api.models.enums.RollupDimension.VEHICLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionRollupsTest {
+
+    private static final LocalDateTime DISPATCH = LocalDateTime.of(2024, 10, 1, 8, 0);
+    private static final LocalDate DAY = DISPATCH.toLocalDate();
+
+    private final TransactionRollupRepository repository = mock(TransactionRollupRepository.class);
+    private final TransactionRollups rollups = new TransactionRollups(repository, true);
+
+    private static Transaction transaction(long vehicleId, LocalDateTime dispatch, LocalDateTime arrival) {
+        return Transaction.builder()
+                .id(1L)
+                .originLocation(Location.builder().id(10L).build())
+                .destinyLocation(Location.builder().id(20L).build())
+                .vehicle(Vehicle.builder().id(vehicleId).build())
+                .driver(Driver.builder().id(30L).build())
+                .dispatchTime(dispatch)
+                .arrivalTime(arrival)
+                .distanceKm(12.5)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Delta> applied() {
+        ArgumentCaptor<List<Delta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).apply(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void createdCountsOnEveryDimension() {
+        rollups.created(List.of(transaction(5L, DISPATCH, null)));
+
+        assertThat(applied()).containsExactly(
+                new Delta(LOCATION, 10L, DAY, 1, 0, 0, 12.5),
+                new Delta(VEHICLE, 5L, DAY, 1, 0, 0, 12.5),
+                new Delta(DRIVER, 30L, DAY, 1, 0, 0, 12.5)
+        );
+    }
+
+    @Test
+    void arrivalAddsCompletionAndDuration() {
+        Transaction transaction = transaction(5L, DISPATCH, null);
+        TransactionRollups.Snapshot before = TransactionRollups.Snapshot.of(transaction);
+        transaction.setArrivalTime(DISPATCH.plusHours(2));
+
+        rollups.updated(before, transaction);
+
+        // A contagem de transações e a distância se anulam; sobram a conclusão e a duração
+        assertThat(applied()).containsExactly(
+                new Delta(LOCATION, 10L, DAY, 0, 1, 7_200, 0),
+                new Delta(VEHICLE, 5L, DAY, 0, 1, 7_200, 0),
+                new Delta(DRIVER, 30L, DAY, 0, 1, 7_200, 0)
+        );
+    }
+
+    @Test
+    void vehicleChangeMovesContribution() {
+        Transaction transaction = transaction(5L, DISPATCH, null);
+        TransactionRollups.Snapshot before = TransactionRollups.Snapshot.of(transaction);
+        transaction.setVehicle(Vehicle.builder().id(6L).build());
+
+        rollups.updated(before, transaction);
+
+        assertThat(applied()).containsExactly(
+                new Delta(VEHICLE, 5L, DAY, -1, 0, 0, -12.5),
+                new Delta(VEHICLE, 6L, DAY, 1, 0, 0, 12.5)
+        );
+    }
+
+    @Test
+    void unchangedEditDoesNotWrite() {
+        Transaction transaction = transaction(5L, DISPATCH, DISPATCH.plusHours(2));
+        TransactionRollups.Snapshot before = TransactionRollups.Snapshot.of(transaction);
+        transaction.setCargoDescription("Paletes");
+
+        rollups.updated(before, transaction);
+
+        verify(repository, never()).apply(any());
+    }
+
+    @Test
+    void deletedSubtractsContribution() {
+        rollups.deleted(transaction(5L, DISPATCH, DISPATCH.plusHours(2)));
+
+        assertThat(applied()).containsExactly(
+                new Delta(LOCATION, 10L, DAY, -1, -1, -7_200, -12.5),
+                new Delta(VEHICLE, 5L, DAY, -1, -1, -7_200, -12.5),
+                new Delta(DRIVER, 30L, DAY, -1, -1, -7_200, -12.5)
+        );
+    }
+
+    @Test
+    void ignoresTransactionsWithoutDispatch() {
+        rollups.created(List.of(transaction(5L, null, null)));
+
+        verify(repository, never()).apply(any());
+    }
+
+    @Test
+    void arrivalBeforeDispatchIsNotCompleted() {
+        rollups.created(List.of(transaction(5L, DISPATCH, DISPATCH.minusMinutes(5))));
+
+        assertThat(applied()).allSatisfy(delta -> {
+            assertThat(delta.completed()).isZero();
+            assertThat(delta.durationSeconds()).isZero();
+        });
+    }
+
+    @Test
+    void locationMoveAppliesDistanceDifference() {
+        when(repository.findDistanceChangesForLocation(10L)).thenReturn(List.of(
+                new DistanceChange(10L, 5L, 30L, DAY, 2.5),
+                new DistanceChange(10L, 6L, 30L, DAY, -1.0)
+        ));
+
+        rollups.locationMoved(10L);
+
+        assertThat(applied()).containsExactly(
+                new Delta(LOCATION, 10L, DAY, 0, 0, 0, 1.5),
+                new Delta(VEHICLE, 5L, DAY, 0, 0, 0, 2.5),
+                new Delta(VEHICLE, 6L, DAY, 0, 0, 0, -1.0),
+                new Delta(DRIVER, 30L, DAY, 0, 0, 0, 1.5)
+        );
+    }
+}